@@ -1,6 +1,7 @@
 package com.syos.client.presentation.controllers;
 
 import com.syos.client.concurrency.AsyncTaskExecutor;
+import com.syos.client.services.CatalogSync;
 import com.syos.client.services.ServerConnection;
 import com.syos.common.dto.*;
 
@@ -31,6 +32,7 @@ public class CheckoutController {
 
     private ObservableList<CartItemView> cart;
     private ServerConnection serverConnection;
+    private CatalogSync catalogSync;
     private AsyncTaskExecutor asyncExecutor;
     private List<ItemDto> availableItems;
 
@@ -40,6 +42,7 @@ public class CheckoutController {
         
         cart = FXCollections.observableArrayList();
         serverConnection = new ServerConnection();
+        catalogSync = new CatalogSync(serverConnection);
         asyncExecutor = new AsyncTaskExecutor();
         availableItems = new ArrayList<>();
 
@@ -63,7 +66,7 @@ public class CheckoutController {
         asyncExecutor.executeAsync(
             () -> {
                 System.out.println("Fetching items...");
-                return serverConnection.getAllItems();
+                return catalogSync.sync();
             },
             items -> {
                 System.out.println("Received " + items.size() + " items from server");
@@ -131,18 +134,18 @@ public class CheckoutController {
             System.out.println("Found item in cache: " + item.getName());
             addItemToCart(item, quantity);
         } else {
-            // Item not in cache, fetch from server
+            // Item not in cache, look it up on the server
             System.out.println("Item not in cache, fetching from server...");
             asyncExecutor.executeAsync(
-                () -> serverConnection.getAllItems(),
+                () -> serverConnection.autocomplete(itemCode, 10),
                 items -> {
-                    availableItems = items;
                     ItemDto fetchedItem = items.stream()
                         .filter(i -> i.getItemCode().equalsIgnoreCase(itemCode))
                         .findFirst()
                         .orElse(null);
                     
                     if (fetchedItem != null) {
+                        availableItems.add(fetchedItem);
                         addItemToCart(fetchedItem, quantity);
                     } else {
                         showError("Item not found: " + itemCode);
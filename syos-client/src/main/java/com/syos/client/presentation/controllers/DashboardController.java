@@ -39,6 +39,8 @@ public class DashboardController {
     
     @FXML private BarChart<String, Number> stockLevelChart;
 
+    private static final int RECENT_TRANSACTIONS = 10;
+
     private ServerConnection serverConnection;
     private AsyncTaskExecutor asyncExecutor;
 
@@ -72,12 +74,16 @@ public class DashboardController {
         public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
             System.out.println("WebSocket Update Received: " + data);
             
-            if ("REFRESH_DASHBOARD".equals(data.toString())) {
+            String message = data.toString();
+            if ("REFRESH_DASHBOARD".equals(message)) {
                 // Must update UI on JavaFX Thread
                 Platform.runLater(() -> {
                     System.out.println("Refreshing Dashboard Data...");
                     loadDashboardData(); // Your existing refresh method
                 });
+            } else if (message.startsWith("LOW_STOCK:") || message.startsWith("STOCK_RESTORED:")) {
+                // An item crossed its reorder level, only the stock counters change
+                Platform.runLater(() -> loadLowStockMetrics());
             }
             return WebSocket.Listener.super.onText(webSocket, data, last);
         }
@@ -115,6 +121,20 @@ public class DashboardController {
         loadSalesMetrics();
         loadInventoryMetrics();
         loadStockChart();
+        loadRecentTransactions();
+    }
+
+    private void loadRecentTransactions() {
+        // First page only: the server returns the newest bills first
+        asyncExecutor.executeAsync(
+            () -> serverConnection.getBillsPage(null, RECENT_TRANSACTIONS, null),
+            page -> Platform.runLater(() -> {
+                if (recentTransactionsTable != null && page != null) {
+                    recentTransactionsTable.getItems().setAll(page.getBills());
+                }
+            }),
+            error -> System.err.println("Failed to load recent transactions")
+        );
     }
 
     private void loadSalesMetrics() {
@@ -126,23 +146,36 @@ public class DashboardController {
     }
 
     private void loadInventoryMetrics() {
+        loadLowStockMetrics();
+        
+        // Summed on the server, the catalog itself is never downloaded here
         asyncExecutor.executeAsync(
-            () -> serverConnection.getAllItems(),
+            () -> serverConnection.getInventorySummary(),
+            summary -> {
+                BigDecimal totalValue = (summary == null) ? BigDecimal.ZERO : summary.getTotalValue();
+                
+                Platform.runLater(() -> {
+                    if (inventoryValue != null) inventoryValue.setText(formatCurrency(totalValue));
+                });
+            },
+            error -> System.err.println("Failed to load inventory metrics")
+        );
+    }
+
+    private void loadLowStockMetrics() {
+        // Out-of-stock items are always in the low stock set, so one small list covers both
+        asyncExecutor.executeAsync(
+            () -> serverConnection.getLowStockItems(),
             items -> {
-                int lowStock = (items == null) ? 0 : (int) items.stream().filter(ItemDto::isLowStock).count();
+                int lowStock = (items == null) ? 0 : items.size();
                 int outOfStock = (items == null) ? 0 : (int) items.stream().filter(item -> item.getCurrentStock() == 0).count();
                 
-                BigDecimal totalValue = (items == null) ? BigDecimal.ZERO : items.stream()
-                    .map(item -> item.getPrice().multiply(BigDecimal.valueOf(item.getCurrentStock())))
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-                
                 Platform.runLater(() -> {
                     if (lowStockValue != null) lowStockValue.setText(String.valueOf(lowStock));
                     if (expiringSoonValue != null) expiringSoonValue.setText(String.valueOf(outOfStock));
-                    if (inventoryValue != null) inventoryValue.setText(formatCurrency(totalValue));
                 });
             },
-            error -> System.err.println("Failed to load inventory metrics")
+            error -> System.err.println("Failed to load low stock metrics")
         );
     }
 
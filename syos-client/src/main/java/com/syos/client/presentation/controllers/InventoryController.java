@@ -1,6 +1,7 @@
 package com.syos.client.presentation.controllers;
 
 import com.syos.client.concurrency.AsyncTaskExecutor;
+import com.syos.client.services.CatalogSync;
 import com.syos.client.services.ServerConnection;
 import com.syos.common.dto.*;
 import javafx.application.Platform;
@@ -42,6 +43,7 @@ public class InventoryController {
     private ObservableList<ItemDto> allItems;
     private ObservableList<ItemDto> filteredItems;
     private ServerConnection serverConnection;
+    private CatalogSync catalogSync;
     private AsyncTaskExecutor asyncExecutor;
 
     @FXML
@@ -49,6 +51,7 @@ public class InventoryController {
         System.out.println("InventoryController initialized");
         
         serverConnection = new ServerConnection();
+        catalogSync = new CatalogSync(serverConnection);
         asyncExecutor = new AsyncTaskExecutor();
         allItems = FXCollections.observableArrayList();
         filteredItems = FXCollections.observableArrayList();
@@ -239,7 +242,7 @@ private void handleAddStock() {
         loadingProgress.setVisible(true);
         
         asyncExecutor.executeAsync(
-            () -> serverConnection.getAllItems(),
+            () -> catalogSync.sync(),
             items -> {
                 System.out.println("Loaded " + items.size() + " items");
                 allItems.setAll(items);
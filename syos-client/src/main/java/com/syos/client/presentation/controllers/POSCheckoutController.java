@@ -1,6 +1,7 @@
 package com.syos.client.presentation.controllers;
 
 import com.syos.client.concurrency.AsyncTaskExecutor;
+import com.syos.client.services.CatalogSync;
 import com.syos.client.services.ServerConnection;
 import com.syos.common.dto.ItemDto;
 import com.syos.common.dto.BillItemDto;
@@ -22,10 +23,11 @@ import javafx.scene.paint.Color;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Random;
-import java.util.stream.Collectors;
 
 public class POSCheckoutController {
 
+    private static final int SEARCH_RESULT_LIMIT = 24;
+
     @FXML private FlowPane productGrid;
     @FXML private TextField searchField;
     
@@ -39,13 +41,16 @@ public class POSCheckoutController {
     @FXML private Label totalAmountLabel;
 
     private ServerConnection serverConnection;
+    private CatalogSync catalogSync;
     private AsyncTaskExecutor asyncExecutor;
     private ObservableList<CartItem> cartList = FXCollections.observableArrayList();
-    private List<ItemDto> allItems; // Cache for searching
+    private List<ItemDto> allItems; // Shown when the search box is empty
+    private int searchSequence; // Only the latest keystroke's results are shown
 
     @FXML
     public void initialize() {
         serverConnection = new ServerConnection();
+        catalogSync = new CatalogSync(serverConnection);
         asyncExecutor = new AsyncTaskExecutor();
         
         setupCartTable();
@@ -68,7 +73,7 @@ public class POSCheckoutController {
 
     private void loadProducts() {
         asyncExecutor.executeAsync(
-            () -> serverConnection.getAllItems(),
+            () -> catalogSync.sync(),
             items -> {
                 this.allItems = items;
                 Platform.runLater(() -> {
@@ -91,13 +96,25 @@ public class POSCheckoutController {
     }
 
     private void filterProducts(String query) {
-        if (allItems == null) return;
+        int sequence = ++searchSequence;
+        
+        if (query == null || query.trim().isEmpty()) {
+            if (allItems != null) {
+                populateProductGrid(allItems);
+            }
+            return;
+        }
         
-        List<ItemDto> filtered = allItems.stream()
-            .filter(item -> item.getName().toLowerCase().contains(query.toLowerCase()))
-            .collect(Collectors.toList());
-            
-        populateProductGrid(filtered);
+        // Server-side prefix lookup instead of scanning the whole catalog here
+        asyncExecutor.executeAsync(
+            () -> serverConnection.autocomplete(query.trim(), SEARCH_RESULT_LIMIT),
+            items -> {
+                if (sequence == searchSequence) {
+                    populateProductGrid(items);
+                }
+            },
+            error -> System.err.println("Error searching products: " + error.getMessage())
+        );
     }
 
     // --- VISUAL CARD GENERATOR ---
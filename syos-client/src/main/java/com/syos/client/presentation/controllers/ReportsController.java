@@ -11,9 +11,13 @@ import javafx.scene.chart.*;
 import javafx.scene.control.*;
 
 import java.math.BigDecimal;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 
 public class ReportsController {
+
+    private static final int TOP_ITEMS_LIMIT = 10;
     
     @FXML private ComboBox<String> reportTypeCombo;
     @FXML private DatePicker startDatePicker;
@@ -25,12 +29,12 @@ public class ReportsController {
     @FXML private Label transactionCountLabel;
     
     @FXML private LineChart<String, Number> salesChart;
-    @FXML private TableView<ItemDto> topItemsTable;
-    @FXML private TableColumn<ItemDto, Integer> rankColumn;
-    @FXML private TableColumn<ItemDto, String> topItemCodeColumn;
-    @FXML private TableColumn<ItemDto, String> topItemNameColumn;
-    @FXML private TableColumn<ItemDto, Integer> qtySoldColumn;
-    @FXML private TableColumn<ItemDto, BigDecimal> revenueColumn;
+    @FXML private TableView<TopItemDto> topItemsTable;
+    @FXML private TableColumn<TopItemDto, Integer> rankColumn;
+    @FXML private TableColumn<TopItemDto, String> topItemCodeColumn;
+    @FXML private TableColumn<TopItemDto, String> topItemNameColumn;
+    @FXML private TableColumn<TopItemDto, Long> qtySoldColumn;
+    @FXML private TableColumn<TopItemDto, BigDecimal> revenueColumn;
     
     @FXML private TableView<ItemDto> lowStockTable;
     @FXML private TableColumn<ItemDto, String> lowStockCodeColumn;
@@ -82,7 +86,12 @@ public class ReportsController {
         topItemCodeColumn.setCellValueFactory(data -> 
             new javafx.beans.property.SimpleStringProperty(data.getValue().getItemCode()));
         topItemNameColumn.setCellValueFactory(data -> 
-            new javafx.beans.property.SimpleStringProperty(data.getValue().getName()));
+            new javafx.beans.property.SimpleStringProperty(data.getValue().getItemName()));
+        qtySoldColumn.setCellValueFactory(data -> 
+            new javafx.beans.property.SimpleLongProperty(
+                data.getValue().getQuantitySold()).asObject());
+        revenueColumn.setCellValueFactory(data -> 
+            new javafx.beans.property.SimpleObjectProperty<>(data.getValue().getRevenue()));
         
         // Low Stock Table
         lowStockCodeColumn.setCellValueFactory(data -> 
@@ -105,26 +114,53 @@ public class ReportsController {
         System.out.println("Loading report data...");
         
         // Load sales metrics
-        todaySalesLabel.setText("Rs 0.00");
-        weekSalesLabel.setText("Rs 0.00");
-        monthSalesLabel.setText("Rs 0.00");
-        transactionCountLabel.setText("0");
+        loadSalesMetrics();
+        
+        // Load this week's best sellers
+        loadTopSellers(false);
         
         // Load low stock items
         loadLowStockReport();
         
-        // Load sample sales chart
-        loadSalesChart();
+        // Load sales chart for the selected dates
+        loadSalesChart("DAY");
+    }
+
+    private void loadSalesMetrics() {
+        LocalDate today = LocalDate.now();
+        
+        asyncExecutor.executeAsync(
+            () -> serverConnection.getSalesSummary(today, today),
+            summary -> {
+                todaySalesLabel.setText(formatRs(summary.getRevenue()));
+                transactionCountLabel.setText(String.valueOf(summary.getTransactionCount()));
+            },
+            error -> System.err.println("Failed to load today's sales: " + error.getMessage())
+        );
+        asyncExecutor.executeAsync(
+            () -> serverConnection.getSalesSummary(today.with(DayOfWeek.MONDAY), today),
+            summary -> weekSalesLabel.setText(formatRs(summary.getRevenue())),
+            error -> System.err.println("Failed to load weekly sales: " + error.getMessage())
+        );
+        asyncExecutor.executeAsync(
+            () -> serverConnection.getSalesSummary(today.withDayOfMonth(1), today),
+            summary -> monthSalesLabel.setText(formatRs(summary.getRevenue())),
+            error -> System.err.println("Failed to load monthly sales: " + error.getMessage())
+        );
+    }
+
+    private void loadTopSellers(boolean exact) {
+        asyncExecutor.executeAsync(
+            () -> serverConnection.getTopSellers("week", TOP_ITEMS_LIMIT, exact),
+            topItems -> topItemsTable.setItems(FXCollections.observableArrayList(topItems)),
+            error -> System.err.println("Failed to load top selling items: " + error.getMessage())
+        );
     }
 
     private void loadLowStockReport() {
         asyncExecutor.executeAsync(
-            () -> serverConnection.getAllItems(),
-            items -> {
-                var lowStockItems = items.stream()
-                    .filter(ItemDto::isLowStock)
-                    .collect(java.util.stream.Collectors.toList());
-                
+            () -> serverConnection.getLowStockItems(),
+            lowStockItems -> {
                 lowStockTable.setItems(FXCollections.observableArrayList(lowStockItems));
             },
             error -> {
@@ -133,18 +169,29 @@ public class ReportsController {
         );
     }
 
-    private void loadSalesChart() {
-        XYChart.Series<String, Number> series = new XYChart.Series<>();
-        series.setName("Sales");
+    private void loadSalesChart(String granularity) {
+        LocalDate from = startDatePicker.getValue();
+        LocalDate to = endDatePicker.getValue();
+        DateTimeFormatter labelFormat = DateTimeFormatter.ofPattern(
+            "MONTH".equals(granularity) ? "MMM yyyy" : "MMM d");
         
-        // Sample data - replace with real data from server
-        series.getData().add(new XYChart.Data<>("Jan 13", 1250));
-        series.getData().add(new XYChart.Data<>("Jan 14", 1580));
-        series.getData().add(new XYChart.Data<>("Jan 15", 1320));
-        series.getData().add(new XYChart.Data<>("Jan 16", 1890));
-        series.getData().add(new XYChart.Data<>("Jan 17", 2100));
-        
-        salesChart.getData().add(series);
+        asyncExecutor.executeAsync(
+            () -> serverConnection.getSalesSeries(from, to, granularity),
+            points -> {
+                XYChart.Series<String, Number> series = new XYChart.Series<>();
+                series.setName("Sales");
+                for (SalesPointDto point : points) {
+                    series.getData().add(new XYChart.Data<>(
+                        point.getPeriodStart().format(labelFormat), point.getRevenue()));
+                }
+                salesChart.getData().setAll(series);
+            },
+            error -> System.err.println("Failed to load sales chart: " + error.getMessage())
+        );
+    }
+
+    private String formatRs(BigDecimal amount) {
+        return String.format("Rs %,.2f", amount);
     }
 
     @FXML
@@ -152,6 +199,32 @@ public class ReportsController {
         String reportType = reportTypeCombo.getValue();
         System.out.println("Generating report: " + reportType);
         
+        if (startDatePicker.getValue().isAfter(endDatePicker.getValue())) {
+            showInfo("Generate Report", "The start date must not be after the end date.");
+            return;
+        }
+        
+        switch (reportType) {
+            case "Daily Sales Report", "Weekly Sales Report" -> {
+                loadSalesChart("DAY");
+                return;
+            }
+            case "Monthly Sales Report" -> {
+                loadSalesChart("MONTH");
+                return;
+            }
+            case "Low Stock Report" -> {
+                loadLowStockReport();
+                return;
+            }
+            case "Top Selling Items" -> {
+                // Exact recount on demand; the periodic view uses the estimate
+                loadTopSellers(true);
+                return;
+            }
+            default -> { }
+        }
+        
         showInfo("Generate Report", 
             "Generating " + reportType + "...\n" +
             "From: " + startDatePicker.getValue() + "\n" +
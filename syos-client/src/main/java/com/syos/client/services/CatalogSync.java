@@ -0,0 +1,54 @@
+package com.syos.client.services;
+
+import com.syos.common.dto.CatalogChanges;
+import com.syos.common.dto.ItemDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Local copy of the item catalog kept in step with the server.
+ * The first sync streams the catalog into the local copy page by page;
+ * later syncs only fetch the items changed since the catalog version the
+ * previous sync returned.
+ */
+public class CatalogSync {
+
+    private static final int RELOAD_PAGE_SIZE = 500;
+
+    private final ServerConnection serverConnection;
+    private final Map<String, ItemDto> items = new TreeMap<>();
+    private long version; // 0 until the first sync
+
+    public CatalogSync(ServerConnection serverConnection) {
+        this.serverConnection = serverConnection;
+    }
+
+    /**
+     * Brings the local copy up to date
+     * @return the catalog in item code order
+     */
+    public synchronized List<ItemDto> sync() throws Exception {
+        CatalogChanges changes = serverConnection.getItemChanges(version);
+
+        if (changes.isFull()) {
+            // Changes after this version are fetched again next time
+            items.clear();
+            for (ItemDto item : serverConnection.iterateItems(null, RELOAD_PAGE_SIZE)) {
+                items.put(item.getItemCode(), item);
+            }
+        } else {
+            for (ItemDto item : changes.getItems()) {
+                items.put(item.getItemCode(), item);
+            }
+            for (String itemCode : changes.getDeletedItemCodes()) {
+                items.remove(itemCode);
+            }
+        }
+        version = changes.getVersion();
+
+        return new ArrayList<>(items.values());
+    }
+}
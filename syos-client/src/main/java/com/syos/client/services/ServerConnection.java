@@ -8,7 +8,13 @@ import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 
 /**
  * Handles HTTP communication with server
@@ -16,6 +22,17 @@ import java.util.List;
 public class ServerConnection {
     
     private static final String SERVER_BASE_URL = "http://localhost:8080/api";
+    private static final int RESPONSE_CACHE_SIZE = 64;
+
+    // Last ETag and body per GET URL, shared by every screen. While the
+    // catalog is unchanged the server answers 304 and the body is reused.
+    private static final Map<String, CachedResponse> responseCache =
+        new LinkedHashMap<String, CachedResponse>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > RESPONSE_CACHE_SIZE;
+            }
+        };
 
     public boolean createNewItem(ItemDto item) throws Exception {
         String url = SERVER_BASE_URL + "/inventory?type=NEW_ITEM";
@@ -46,12 +63,78 @@ public class ServerConnection {
         sendPostRequest(url, jsonRequest);
     }
 
-    public List<ItemDto> getAllItems() throws Exception {
-        String url = SERVER_BASE_URL + "/items?action=getAll";
+    /**
+     * Catalog totals such as the inventory value, without downloading the items
+     */
+    public InventorySummaryDto getInventorySummary() throws Exception {
+        String url = SERVER_BASE_URL + "/items?action=summary";
         String response = sendGetRequest(url);
         
-        return JsonUtil.fromJson(response, 
-            new com.google.gson.reflect.TypeToken<List<ItemDto>>(){}.getType());
+        return JsonUtil.fromJson(response, InventorySummaryDto.class);
+    }
+
+    /**
+     * One keyset page of the catalog in item code order
+     * @param after last item code of the previous page, or null for the first page
+     * @param category category code to filter on, or null for all
+     */
+    public ItemPage getItemsPage(String after, int limit, String category) throws Exception {
+        StringBuilder url = new StringBuilder(SERVER_BASE_URL + "/items?action=page&limit=" + limit);
+        if (after != null) {
+            url.append("&after=").append(java.net.URLEncoder.encode(after, "UTF-8"));
+        }
+        if (category != null) {
+            url.append("&category=").append(java.net.URLEncoder.encode(category, "UTF-8"));
+        }
+        String response = sendGetRequest(url.toString());
+        
+        return JsonUtil.fromJson(response, ItemPage.class);
+    }
+
+    /**
+     * Items changed or deleted after a catalog version; see CatalogSync
+     * @param since version from the previous call, or 0 for none
+     */
+    public CatalogChanges getItemChanges(long since) throws Exception {
+        String url = SERVER_BASE_URL + "/items?action=changes&since=" + since;
+        String response = sendGetRequest(url);
+        
+        return JsonUtil.fromJson(response, CatalogChanges.class);
+    }
+
+    /**
+     * Iterates the catalog, fetching the next page only when the previous
+     * one has been consumed. Server errors surface as RuntimeException.
+     */
+    public Iterable<ItemDto> iterateItems(String category, int pageSize) {
+        return () -> new Iterator<ItemDto>() {
+            private Iterator<ItemDto> current = Collections.emptyIterator();
+            private String after;
+            private boolean lastPage;
+            
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext() && !lastPage) {
+                    try {
+                        ItemPage page = getItemsPage(after, pageSize, category);
+                        current = page.getItems().iterator();
+                        after = page.getNextCursor();
+                        lastPage = after == null;
+                    } catch (Exception e) {
+                        throw new RuntimeException("Failed to load items: " + e.getMessage(), e);
+                    }
+                }
+                return current.hasNext();
+            }
+            
+            @Override
+            public ItemDto next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+        };
     }
 
     public List<ItemDto> searchItems(String query) throws Exception {
@@ -63,6 +146,95 @@ public class ServerConnection {
             new com.google.gson.reflect.TypeToken<List<ItemDto>>(){}.getType());
     }
 
+    /**
+     * Ranked search returning at most limit items
+     */
+    public List<ItemDto> searchItems(String query, int limit) throws Exception {
+        String url = SERVER_BASE_URL + "/items?action=search&q=" + 
+            java.net.URLEncoder.encode(query, "UTF-8") + "&limit=" + limit;
+        String response = sendGetRequest(url);
+        
+        return JsonUtil.fromJson(response,
+            new com.google.gson.reflect.TypeToken<List<ItemDto>>(){}.getType());
+    }
+
+    /**
+     * Items at or below their reorder level, kept up to date by the server
+     */
+    public List<ItemDto> getLowStockItems() throws Exception {
+        String url = SERVER_BASE_URL + "/items?action=lowStock";
+        String response = sendGetRequest(url);
+        
+        return JsonUtil.fromJson(response,
+            new com.google.gson.reflect.TypeToken<List<ItemDto>>(){}.getType());
+    }
+
+    /**
+     * Typeahead: items whose code, name or a word of the name starts with the prefix
+     */
+    public List<ItemDto> autocomplete(String prefix, int limit) throws Exception {
+        String url = SERVER_BASE_URL + "/items?action=autocomplete&q=" + 
+            java.net.URLEncoder.encode(prefix, "UTF-8") + "&limit=" + limit;
+        String response = sendGetRequest(url);
+        
+        return JsonUtil.fromJson(response,
+            new com.google.gson.reflect.TypeToken<List<ItemDto>>(){}.getType());
+    }
+
+    /**
+     * Sales totals for the days from..to, both inclusive
+     */
+    public SalesSummaryDto getSalesSummary(java.time.LocalDate from, java.time.LocalDate to) throws Exception {
+        String url = SERVER_BASE_URL + "/reports?action=summary&from=" + from + "&to=" + to;
+        String response = sendGetRequest(url);
+        
+        return JsonUtil.fromJson(response, SalesSummaryDto.class);
+    }
+
+    /**
+     * Sales per HOUR, DAY or MONTH over the days from..to, empty periods included
+     */
+    public List<SalesPointDto> getSalesSeries(java.time.LocalDate from, java.time.LocalDate to,
+                                              String granularity) throws Exception {
+        String url = SERVER_BASE_URL + "/reports?action=series&from=" + from + "&to=" + to +
+            "&granularity=" + granularity;
+        String response = sendGetRequest(url);
+        
+        return JsonUtil.fromJson(response,
+            new com.google.gson.reflect.TypeToken<List<SalesPointDto>>(){}.getType());
+    }
+
+    /**
+     * Best sellers of the current day ("today") or week ("week")
+     * @param exact recount from saved bills instead of the server's estimate
+     */
+    public List<TopItemDto> getTopSellers(String window, int limit, boolean exact) throws Exception {
+        String url = SERVER_BASE_URL + "/reports?action=topItems&window=" + window +
+            "&limit=" + limit + "&exact=" + exact;
+        String response = sendGetRequest(url);
+        
+        return JsonUtil.fromJson(response,
+            new com.google.gson.reflect.TypeToken<List<TopItemDto>>(){}.getType());
+    }
+
+
+    /**
+     * One keyset page of saved bills, newest first
+     * @param before nextCursor of the previous page, or null for the first page
+     * @param customerId customer to filter on, or null for all
+     */
+    public BillPage getBillsPage(String before, int limit, String customerId) throws Exception {
+        StringBuilder url = new StringBuilder(SERVER_BASE_URL + "/bills?action=page&limit=" + limit);
+        if (before != null) {
+            url.append("&before=").append(java.net.URLEncoder.encode(before, "UTF-8"));
+        }
+        if (customerId != null) {
+            url.append("&customer=").append(java.net.URLEncoder.encode(customerId, "UTF-8"));
+        }
+        String response = sendGetRequest(url.toString());
+        
+        return JsonUtil.fromJson(response, BillPage.class);
+    }
     
     private String sendPostRequest(String urlString, String jsonBody) throws Exception {
         URL url = new URL(urlString);
@@ -87,7 +259,36 @@ public class ServerConnection {
         conn.setRequestMethod("GET");
         conn.setRequestProperty("Accept", "application/json");
 
-        return readResponse(conn);
+        CachedResponse cached;
+        synchronized (responseCache) {
+            cached = responseCache.get(urlString);
+        }
+        if (cached != null) {
+            conn.setRequestProperty("If-None-Match", cached.etag);
+        }
+
+        if (cached != null && conn.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+            return cached.body;
+        }
+
+        String body = readResponse(conn);
+        String etag = conn.getHeaderField("ETag");
+        if (etag != null) {
+            synchronized (responseCache) {
+                responseCache.put(urlString, new CachedResponse(etag, body));
+            }
+        }
+        return body;
+    }
+
+    private static class CachedResponse {
+        private final String etag;
+        private final String body;
+
+        CachedResponse(String etag, String body) {
+            this.etag = etag;
+            this.body = body;
+        }
     }
 
 
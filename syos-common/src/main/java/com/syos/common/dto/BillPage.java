@@ -0,0 +1,30 @@
+package com.syos.common.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of bills, newest first.
+ * nextCursor is passed as "before" to fetch the next page; null on the last page.
+ */
+public class BillPage implements Serializable {
+    private List<BillDto> bills = new ArrayList<>();
+    private String nextCursor;
+
+    public BillPage() {}
+
+    public BillPage(List<BillDto> bills, String nextCursor) {
+        this.bills = bills;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<BillDto> getBills() { return bills; }
+    public void setBills(List<BillDto> bills) { this.bills = bills; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public boolean hasMore() { return nextCursor != null; }
+}
@@ -0,0 +1,39 @@
+package com.syos.common.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+public class BillPageRequest implements Serializable {
+    private String beforeBillId;    // null for the first page
+    private int limit;
+    private String customerId;      // null for all customers
+    private LocalDate from;         // null for no lower bound
+    private LocalDate to;           // inclusive, null for no upper bound
+
+    public BillPageRequest() {}
+
+    public BillPageRequest(String beforeBillId, int limit, String customerId,
+                           LocalDate from, LocalDate to) {
+        this.beforeBillId = beforeBillId;
+        this.limit = limit;
+        this.customerId = customerId;
+        this.from = from;
+        this.to = to;
+    }
+
+    // Getters and Setters
+    public String getBeforeBillId() { return beforeBillId; }
+    public void setBeforeBillId(String beforeBillId) { this.beforeBillId = beforeBillId; }
+
+    public int getLimit() { return limit; }
+    public void setLimit(int limit) { this.limit = limit; }
+
+    public String getCustomerId() { return customerId; }
+    public void setCustomerId(String customerId) { this.customerId = customerId; }
+
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+}
@@ -0,0 +1,41 @@
+package com.syos.common.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Catalog changes after a version, for incremental client sync.
+ * When full is true the server does not know the client's version: the
+ * client reloads the catalog (e.g. page by page) and syncs from version.
+ * Otherwise it applies items and removes deletedItemCodes. version is
+ * passed as "since" on the next call.
+ */
+public class CatalogChanges implements Serializable {
+    private long version;
+    private boolean full;
+    private List<ItemDto> items = new ArrayList<>();
+    private List<String> deletedItemCodes = new ArrayList<>();
+
+    public CatalogChanges() {}
+
+    public CatalogChanges(long version, boolean full, List<ItemDto> items, List<String> deletedItemCodes) {
+        this.version = version;
+        this.full = full;
+        this.items = items;
+        this.deletedItemCodes = deletedItemCodes;
+    }
+
+    // Getters and Setters
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
+    public boolean isFull() { return full; }
+    public void setFull(boolean full) { this.full = full; }
+
+    public List<ItemDto> getItems() { return items; }
+    public void setItems(List<ItemDto> items) { this.items = items; }
+
+    public List<String> getDeletedItemCodes() { return deletedItemCodes; }
+    public void setDeletedItemCodes(List<String> deletedItemCodes) { this.deletedItemCodes = deletedItemCodes; }
+}
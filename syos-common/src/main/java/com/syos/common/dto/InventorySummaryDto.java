@@ -0,0 +1,21 @@
+package com.syos.common.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Totals over the whole catalog, computed on the server
+ */
+public class InventorySummaryDto implements Serializable {
+    private BigDecimal totalValue;  // sum of price x current stock
+
+    public InventorySummaryDto() {}
+
+    public InventorySummaryDto(BigDecimal totalValue) {
+        this.totalValue = totalValue;
+    }
+
+    // Getters and Setters
+    public BigDecimal getTotalValue() { return totalValue; }
+    public void setTotalValue(BigDecimal totalValue) { this.totalValue = totalValue; }
+}
@@ -0,0 +1,30 @@
+package com.syos.common.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of the catalog in item code order.
+ * nextCursor is passed as "after" to fetch the next page; null on the last page.
+ */
+public class ItemPage implements Serializable {
+    private List<ItemDto> items = new ArrayList<>();
+    private String nextCursor;
+
+    public ItemPage() {}
+
+    public ItemPage(List<ItemDto> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<ItemDto> getItems() { return items; }
+    public void setItems(List<ItemDto> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public boolean hasMore() { return nextCursor != null; }
+}
@@ -0,0 +1,27 @@
+package com.syos.common.dto;
+
+import java.io.Serializable;
+
+public class ItemPageRequest implements Serializable {
+    private String afterItemCode;   // null for the first page
+    private int limit;
+    private String categoryCode;    // null for all categories
+
+    public ItemPageRequest() {}
+
+    public ItemPageRequest(String afterItemCode, int limit, String categoryCode) {
+        this.afterItemCode = afterItemCode;
+        this.limit = limit;
+        this.categoryCode = categoryCode;
+    }
+
+    // Getters and Setters
+    public String getAfterItemCode() { return afterItemCode; }
+    public void setAfterItemCode(String afterItemCode) { this.afterItemCode = afterItemCode; }
+
+    public int getLimit() { return limit; }
+    public void setLimit(int limit) { this.limit = limit; }
+
+    public String getCategoryCode() { return categoryCode; }
+    public void setCategoryCode(String categoryCode) { this.categoryCode = categoryCode; }
+}
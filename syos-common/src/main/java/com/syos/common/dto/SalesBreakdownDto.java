@@ -0,0 +1,37 @@
+package com.syos.common.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Sales of one group (item code, category, cashier or day) in a breakdown.
+ * Revenue excludes tax.
+ */
+public class SalesBreakdownDto implements Serializable {
+    private String key;
+    private long lineCount;
+    private long quantity;
+    private BigDecimal revenue;
+
+    public SalesBreakdownDto() {}
+
+    public SalesBreakdownDto(String key, long lineCount, long quantity, BigDecimal revenue) {
+        this.key = key;
+        this.lineCount = lineCount;
+        this.quantity = quantity;
+        this.revenue = revenue;
+    }
+
+    // Getters and Setters
+    public String getKey() { return key; }
+    public void setKey(String key) { this.key = key; }
+
+    public long getLineCount() { return lineCount; }
+    public void setLineCount(long lineCount) { this.lineCount = lineCount; }
+
+    public long getQuantity() { return quantity; }
+    public void setQuantity(long quantity) { this.quantity = quantity; }
+
+    public BigDecimal getRevenue() { return revenue; }
+    public void setRevenue(BigDecimal revenue) { this.revenue = revenue; }
+}
@@ -0,0 +1,53 @@
+package com.syos.common.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Bill lines sold on the days from..to (inclusive), grouped by ITEM,
+ * CATEGORY, CASHIER or DAY. Filters left null match everything.
+ */
+public class SalesBreakdownRequest implements Serializable {
+    private LocalDate from;
+    private LocalDate to;
+    private String groupBy;
+    private String itemCode;
+    private String cashierId;
+    private String categoryCode;
+    private int limit;
+
+    public SalesBreakdownRequest() {}
+
+    public SalesBreakdownRequest(LocalDate from, LocalDate to, String groupBy, String itemCode,
+                                 String cashierId, String categoryCode, int limit) {
+        this.from = from;
+        this.to = to;
+        this.groupBy = groupBy;
+        this.itemCode = itemCode;
+        this.cashierId = cashierId;
+        this.categoryCode = categoryCode;
+        this.limit = limit;
+    }
+
+    // Getters and Setters
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+
+    public String getGroupBy() { return groupBy; }
+    public void setGroupBy(String groupBy) { this.groupBy = groupBy; }
+
+    public String getItemCode() { return itemCode; }
+    public void setItemCode(String itemCode) { this.itemCode = itemCode; }
+
+    public String getCashierId() { return cashierId; }
+    public void setCashierId(String cashierId) { this.cashierId = cashierId; }
+
+    public String getCategoryCode() { return categoryCode; }
+    public void setCategoryCode(String categoryCode) { this.categoryCode = categoryCode; }
+
+    public int getLimit() { return limit; }
+    public void setLimit(int limit) { this.limit = limit; }
+}
@@ -0,0 +1,37 @@
+package com.syos.common.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Sales of one hour, day or month in a sales series
+ */
+public class SalesPointDto implements Serializable {
+    private LocalDateTime periodStart;
+    private BigDecimal revenue;
+    private BigDecimal tax;
+    private long transactionCount;
+
+    public SalesPointDto() {}
+
+    public SalesPointDto(LocalDateTime periodStart, BigDecimal revenue, BigDecimal tax, long transactionCount) {
+        this.periodStart = periodStart;
+        this.revenue = revenue;
+        this.tax = tax;
+        this.transactionCount = transactionCount;
+    }
+
+    // Getters and Setters
+    public LocalDateTime getPeriodStart() { return periodStart; }
+    public void setPeriodStart(LocalDateTime periodStart) { this.periodStart = periodStart; }
+
+    public BigDecimal getRevenue() { return revenue; }
+    public void setRevenue(BigDecimal revenue) { this.revenue = revenue; }
+
+    public BigDecimal getTax() { return tax; }
+    public void setTax(BigDecimal tax) { this.tax = tax; }
+
+    public long getTransactionCount() { return transactionCount; }
+    public void setTransactionCount(long transactionCount) { this.transactionCount = transactionCount; }
+}
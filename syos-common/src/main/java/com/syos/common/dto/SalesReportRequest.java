@@ -0,0 +1,32 @@
+package com.syos.common.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Sales report over the days from..to, both inclusive.
+ * granularity (HOUR, DAY or MONTH) is only used for series.
+ */
+public class SalesReportRequest implements Serializable {
+    private LocalDate from;
+    private LocalDate to;
+    private String granularity;
+
+    public SalesReportRequest() {}
+
+    public SalesReportRequest(LocalDate from, LocalDate to, String granularity) {
+        this.from = from;
+        this.to = to;
+        this.granularity = granularity;
+    }
+
+    // Getters and Setters
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+
+    public String getGranularity() { return granularity; }
+    public void setGranularity(String granularity) { this.granularity = granularity; }
+}
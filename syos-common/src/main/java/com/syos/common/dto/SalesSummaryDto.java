@@ -0,0 +1,44 @@
+package com.syos.common.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sales totals over a date range. Revenue includes tax.
+ */
+public class SalesSummaryDto implements Serializable {
+    private LocalDate from;
+    private LocalDate to;
+    private BigDecimal revenue;
+    private BigDecimal tax;
+    private long transactionCount;
+    private Map<String, BigDecimal> revenueByPaymentMethod = new LinkedHashMap<>();
+    private Map<String, BigDecimal> revenueByCashier = new LinkedHashMap<>();
+
+    public SalesSummaryDto() {}
+
+    // Getters and Setters
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+
+    public BigDecimal getRevenue() { return revenue; }
+    public void setRevenue(BigDecimal revenue) { this.revenue = revenue; }
+
+    public BigDecimal getTax() { return tax; }
+    public void setTax(BigDecimal tax) { this.tax = tax; }
+
+    public long getTransactionCount() { return transactionCount; }
+    public void setTransactionCount(long transactionCount) { this.transactionCount = transactionCount; }
+
+    public Map<String, BigDecimal> getRevenueByPaymentMethod() { return revenueByPaymentMethod; }
+    public void setRevenueByPaymentMethod(Map<String, BigDecimal> revenueByPaymentMethod) { this.revenueByPaymentMethod = revenueByPaymentMethod; }
+
+    public Map<String, BigDecimal> getRevenueByCashier() { return revenueByCashier; }
+    public void setRevenueByCashier(Map<String, BigDecimal> revenueByCashier) { this.revenueByCashier = revenueByCashier; }
+}
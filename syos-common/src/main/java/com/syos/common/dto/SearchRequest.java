@@ -0,0 +1,22 @@
+package com.syos.common.dto;
+
+import java.io.Serializable;
+
+public class SearchRequest implements Serializable {
+    private String query;
+    private int limit;
+
+    public SearchRequest() {}
+
+    public SearchRequest(String query, int limit) {
+        this.query = query;
+        this.limit = limit;
+    }
+
+    // Getters and Setters
+    public String getQuery() { return query; }
+    public void setQuery(String query) { this.query = query; }
+
+    public int getLimit() { return limit; }
+    public void setLimit(int limit) { this.limit = limit; }
+}
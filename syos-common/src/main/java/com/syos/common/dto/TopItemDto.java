@@ -0,0 +1,44 @@
+package com.syos.common.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * One row of a best sellers report. Estimated rows may overstate
+ * quantitySold by up to maxOvercount; exact rows have 0.
+ * Revenue excludes tax.
+ */
+public class TopItemDto implements Serializable {
+    private String itemCode;
+    private String itemName;
+    private long quantitySold;
+    private long maxOvercount;
+    private BigDecimal revenue;
+
+    public TopItemDto() {}
+
+    public TopItemDto(String itemCode, String itemName, long quantitySold,
+                      long maxOvercount, BigDecimal revenue) {
+        this.itemCode = itemCode;
+        this.itemName = itemName;
+        this.quantitySold = quantitySold;
+        this.maxOvercount = maxOvercount;
+        this.revenue = revenue;
+    }
+
+    // Getters and Setters
+    public String getItemCode() { return itemCode; }
+    public void setItemCode(String itemCode) { this.itemCode = itemCode; }
+
+    public String getItemName() { return itemName; }
+    public void setItemName(String itemName) { this.itemName = itemName; }
+
+    public long getQuantitySold() { return quantitySold; }
+    public void setQuantitySold(long quantitySold) { this.quantitySold = quantitySold; }
+
+    public long getMaxOvercount() { return maxOvercount; }
+    public void setMaxOvercount(long maxOvercount) { this.maxOvercount = maxOvercount; }
+
+    public BigDecimal getRevenue() { return revenue; }
+    public void setRevenue(BigDecimal revenue) { this.revenue = revenue; }
+}
@@ -0,0 +1,31 @@
+package com.syos.common.dto;
+
+import java.io.Serializable;
+
+/**
+ * Best sellers of the current DAY or WEEK. exact recounts from the saved
+ * bill lines instead of reading the in-memory estimate.
+ */
+public class TopSellersRequest implements Serializable {
+    private String window;
+    private int limit;
+    private boolean exact;
+
+    public TopSellersRequest() {}
+
+    public TopSellersRequest(String window, int limit, boolean exact) {
+        this.window = window;
+        this.limit = limit;
+        this.exact = exact;
+    }
+
+    // Getters and Setters
+    public String getWindow() { return window; }
+    public void setWindow(String window) { this.window = window; }
+
+    public int getLimit() { return limit; }
+    public void setLimit(int limit) { this.limit = limit; }
+
+    public boolean isExact() { return exact; }
+    public void setExact(boolean exact) { this.exact = exact; }
+}
@@ -5,7 +5,11 @@ import com.google.gson.GsonBuilder;
 import com.google.gson.JsonDeserializer;
 import com.google.gson.JsonPrimitive;
 import com.google.gson.JsonSerializer;
+import com.google.gson.stream.JsonWriter;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
 import java.lang.reflect.Type;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -49,4 +53,46 @@ public class JsonUtil {
     public static <T> T fromJson(String json, Type typeOfT) {
         return gson.fromJson(json, typeOfT);
     }
-}
\ No newline at end of file
+
+    /**
+     * Writes obj as JSON straight to the writer, without building a String first
+     */
+    public static void toJson(Object obj, Writer writer) throws IOException {
+        JsonWriter json = gson.newJsonWriter(writer);
+        if (obj == null) {
+            json.nullValue();
+        } else {
+            gson.toJson(obj, obj.getClass(), json);
+        }
+        json.flush();
+    }
+
+    /**
+     * Writes a JSON array one element at a time, so only the current element
+     * is being serialised and the source can be lazy
+     */
+    public static void writeArray(Iterable<?> items, Writer writer) throws IOException {
+        JsonWriter json = gson.newJsonWriter(writer);
+        json.beginArray();
+        for (Object item : items) {
+            if (item == null) {
+                json.nullValue();
+            } else {
+                gson.toJson(item, item.getClass(), json);
+            }
+        }
+        json.endArray();
+        json.flush();
+    }
+
+    /**
+     * Parses JSON straight from a stream (e.g. a request body)
+     */
+    public static <T> T fromJson(Reader reader, Class<T> classOfT) {
+        return gson.fromJson(reader, classOfT);
+    }
+
+    public static <T> T fromJson(Reader reader, Type typeOfT) {
+        return gson.fromJson(reader, typeOfT);
+    }
+}
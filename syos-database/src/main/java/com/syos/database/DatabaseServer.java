@@ -1,7 +1,9 @@
 package com.syos.database;
 
+import com.syos.database.migration.MigrationRunner;
 import org.h2.tools.Server;
 
+import java.io.IOException;
 import java.sql.*;
 
 /**
@@ -54,52 +56,19 @@ public class DatabaseServer {
         }
     }
 
-    private static void initializeDatabase() throws SQLException {
+    private static void initializeDatabase() throws SQLException, IOException {
         // UPDATED: Add ;IFEXISTS=FALSE to allow database creation
         String url = "jdbc:h2:tcp://localhost:" + TCP_PORT + "/~/syos;IFEXISTS=FALSE";
         
         try (Connection conn = DriverManager.getConnection(url, "sa", "")) {
             Statement stmt = conn.createStatement();
 
-            System.out.println("Creating database tables...");
-
-            // Create tables
-            stmt.execute("CREATE TABLE IF NOT EXISTS items (" +
-                "item_code VARCHAR(20) PRIMARY KEY," +
-                "name VARCHAR(100) NOT NULL," +
-                "description VARCHAR(255)," +
-                "price DECIMAL(10, 2) NOT NULL," +
-                "category_code VARCHAR(20)," +
-                "current_stock INT NOT NULL DEFAULT 0," +
-                "reorder_level INT NOT NULL DEFAULT 10)");
-
-            stmt.execute("CREATE TABLE IF NOT EXISTS customers (" +
-                "customer_id VARCHAR(20) PRIMARY KEY," +
-                "name VARCHAR(100) NOT NULL," +
-                "email VARCHAR(100)," +
-                "phone VARCHAR(20)," +
-                "address VARCHAR(255))");
-
-            stmt.execute("CREATE TABLE IF NOT EXISTS bills (" +
-                "bill_id VARCHAR(30) PRIMARY KEY," +
-                "customer_id VARCHAR(20) NOT NULL," +
-                "cashier_id VARCHAR(20) NOT NULL," +
-                "payment_method VARCHAR(10) NOT NULL," +
-                "subtotal DECIMAL(10, 2) NOT NULL," +
-                "tax DECIMAL(10, 2) NOT NULL," +
-                "total DECIMAL(10, 2) NOT NULL," +
-                "timestamp TIMESTAMP NOT NULL)");
-
-            stmt.execute("CREATE TABLE IF NOT EXISTS bill_items (" +
-                "id INT AUTO_INCREMENT PRIMARY KEY," +
-                "bill_id VARCHAR(30) NOT NULL," +
-                "item_code VARCHAR(20) NOT NULL," +
-                "item_name VARCHAR(100) NOT NULL," +
-                "quantity INT NOT NULL," +
-                "unit_price DECIMAL(10, 2) NOT NULL," +
-                "subtotal DECIMAL(10, 2) NOT NULL)");
-
-            System.out.println("  ✓ Tables created");
+            // Tables and indexes come from the versioned scripts in db/migration
+            System.out.println("Migrating database schema...");
+            MigrationRunner migrations = new MigrationRunner(conn);
+            int applied = migrations.migrate();
+            System.out.println("  ✓ Schema at version " + migrations.currentVersion() +
+                               " (" + applied + " migration(s) applied)");
 
             // Insert sample data (use MERGE to avoid duplicates)
             System.out.println("Inserting sample data...");
@@ -0,0 +1,208 @@
+package com.syos.database.migration;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Brings the schema up to date by applying the scripts listed in
+ * db/migration/index.txt, in order, each one only once.
+ *
+ * Scripts are named {@code V<version>__<description>.sql} and every applied
+ * version is recorded in schema_version with a checksum of its script.
+ * H2 commits DDL as it runs, so a script that fails part way is not rolled
+ * back: scripts use IF NOT EXISTS so they can be run again once fixed.
+ */
+public class MigrationRunner {
+
+    private static final String LOCATION = "db/migration/";
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+
+    private final Connection conn;
+    private final String location;
+
+    public MigrationRunner(Connection conn) {
+        this(conn, LOCATION);
+    }
+
+    /**
+     * @param location classpath directory holding index.txt and the scripts, ending with '/'
+     */
+    MigrationRunner(Connection conn, String location) {
+        this.conn = conn;
+        this.location = location;
+    }
+
+    /**
+     * Applies every script newer than the recorded version
+     * @return number of scripts applied
+     */
+    public int migrate() throws SQLException, IOException {
+        createVersionTable();
+        Map<Integer, Long> applied = appliedChecksums();
+
+        int count = 0;
+        for (Migration migration : loadMigrations()) {
+            Long checksum = applied.get(migration.version);
+            if (checksum == null) {
+                apply(migration);
+                count++;
+            } else if (checksum != migration.checksum) {
+                System.err.println("⚠ " + migration.script + " changed after it was applied; " +
+                                   "add a new migration instead of editing it");
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Highest applied version, or 0 for none
+     */
+    public int currentVersion() throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private void createVersionTable() throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS schema_version (" +
+                "version INT PRIMARY KEY," +
+                "script VARCHAR(100) NOT NULL," +
+                "checksum BIGINT NOT NULL," +
+                "applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)");
+        }
+    }
+
+    private Map<Integer, Long> appliedChecksums() throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (rs.next()) {
+                applied.put(rs.getInt("version"), rs.getLong("checksum"));
+            }
+        }
+        return applied;
+    }
+
+    private void apply(Migration migration) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : statements(migration.sql)) {
+                stmt.execute(sql);
+            }
+            try (PreparedStatement record = conn.prepareStatement(
+                    "INSERT INTO schema_version (version, script, checksum) VALUES (?, ?, ?)")) {
+                record.setInt(1, migration.version);
+                record.setString(2, migration.script);
+                record.setLong(3, migration.checksum);
+                record.executeUpdate();
+            }
+            conn.commit();
+            System.out.println("  ✓ Applied " + migration.script);
+
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new SQLException("Migration " + migration.script + " failed: " + e.getMessage(), e);
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Scripts from the index, checked to be in strictly increasing version order
+     */
+    private List<Migration> loadMigrations() throws IOException {
+        List<Migration> migrations = new ArrayList<>();
+        int lastVersion = 0;
+
+        for (String line : readResource(location + "index.txt").split("\n")) {
+            String script = line.trim();
+            if (script.isEmpty() || script.startsWith("#")) {
+                continue;
+            }
+            Matcher matcher = SCRIPT_NAME.matcher(script);
+            if (!matcher.matches()) {
+                throw new IllegalStateException("Migration name must be V<version>__<description>.sql: " + script);
+            }
+            int version = Integer.parseInt(matcher.group(1));
+            if (version <= lastVersion) {
+                throw new IllegalStateException("Migration " + script + " is out of order");
+            }
+            lastVersion = version;
+
+            String sql = readResource(location + script);
+            CRC32 crc = new CRC32();
+            crc.update(sql.getBytes(StandardCharsets.UTF_8));
+            migrations.add(new Migration(version, script, sql, crc.getValue()));
+        }
+        return migrations;
+    }
+
+    private static String readResource(String path) throws IOException {
+        InputStream in = MigrationRunner.class.getClassLoader().getResourceAsStream(path);
+        if (in == null) {
+            throw new IllegalStateException("Missing migration resource: " + path);
+        }
+        StringBuilder text = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                text.append(line).append('\n');
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Splits a script into statements ending with ';' at the end of a line.
+     * Whole-line "--" comments are dropped.
+     */
+    private static List<String> statements(String sql) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+
+        for (String line : sql.split("\n")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                continue;
+            }
+            current.append(line).append('\n');
+            if (trimmed.endsWith(";")) {
+                String statement = current.toString().trim();
+                statements.add(statement.substring(0, statement.length() - 1));
+                current.setLength(0);
+            }
+        }
+        if (!current.toString().isBlank()) {
+            statements.add(current.toString().trim());
+        }
+        return statements;
+    }
+
+    private static final class Migration {
+        final int version;
+        final String script;
+        final String sql;
+        final long checksum;
+
+        Migration(int version, String script, String sql, long checksum) {
+            this.version = version;
+            this.script = script;
+            this.sql = sql;
+            this.checksum = checksum;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+-- Tables as first created by DatabaseServer, before migrations were tracked.
+-- IF NOT EXISTS lets this run over a database that already has them.
+
+CREATE TABLE IF NOT EXISTS items (
+    item_code VARCHAR(20) PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    description VARCHAR(255),
+    price DECIMAL(10, 2) NOT NULL,
+    category_code VARCHAR(20),
+    current_stock INT NOT NULL DEFAULT 0,
+    reorder_level INT NOT NULL DEFAULT 10
+);
+
+CREATE TABLE IF NOT EXISTS customers (
+    customer_id VARCHAR(20) PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    email VARCHAR(100),
+    phone VARCHAR(20),
+    address VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS bills (
+    bill_id VARCHAR(30) PRIMARY KEY,
+    customer_id VARCHAR(20) NOT NULL,
+    cashier_id VARCHAR(20) NOT NULL,
+    payment_method VARCHAR(10) NOT NULL,
+    subtotal DECIMAL(10, 2) NOT NULL,
+    tax DECIMAL(10, 2) NOT NULL,
+    total DECIMAL(10, 2) NOT NULL,
+    timestamp TIMESTAMP NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS bill_items (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    bill_id VARCHAR(30) NOT NULL,
+    item_code VARCHAR(20) NOT NULL,
+    item_name VARCHAR(100) NOT NULL,
+    quantity INT NOT NULL,
+    unit_price DECIMAL(10, 2) NOT NULL,
+    subtotal DECIMAL(10, 2) NOT NULL
+);
+
+-- Change log folded into items.current_stock by the server
+CREATE TABLE IF NOT EXISTS stock_movements (
+    movement_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    item_code VARCHAR(20) NOT NULL,
+    delta INT NOT NULL,
+    reference VARCHAR(30),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
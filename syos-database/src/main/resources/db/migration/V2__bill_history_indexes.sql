@@ -0,0 +1,8 @@
+-- Bill history and sales reports: range scans and keyset pages by time
+CREATE INDEX IF NOT EXISTS idx_bills_timestamp ON bills (timestamp, bill_id);
+
+-- A customer's bills, newest first
+CREATE INDEX IF NOT EXISTS idx_bills_customer ON bills (customer_id, timestamp);
+
+-- Lines of a page of bills, and the bill_items/bills join in reports
+CREATE INDEX IF NOT EXISTS idx_bill_items_bill ON bill_items (bill_id);
@@ -0,0 +1,8 @@
+-- Catalog pages within one category, in item code order
+CREATE INDEX IF NOT EXISTS idx_items_category ON items (category_code, item_code);
+
+-- Low-stock lookups compare two columns, which no index can seek on, so
+-- the gap is kept as a generated column and stock_gap <= 0 seeks instead
+ALTER TABLE items ADD COLUMN IF NOT EXISTS stock_gap INT
+    GENERATED ALWAYS AS (current_stock - reorder_level);
+CREATE INDEX IF NOT EXISTS idx_items_stock_gap ON items (stock_gap);
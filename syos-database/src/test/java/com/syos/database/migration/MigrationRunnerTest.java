@@ -0,0 +1,137 @@
+package com.syos.database.migration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MigrationRunnerTest {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private Connection conn;
+
+    @BeforeEach
+    void openDatabase() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:h2:mem:migrations-" + DATABASES.incrementAndGet());
+    }
+
+    @AfterEach
+    void closeDatabase() throws SQLException {
+        conn.close();
+    }
+
+    @Test
+    void appliesTheIndexedScriptsInOrder() throws Exception {
+        MigrationRunner runner = new MigrationRunner(conn);
+
+        assertEquals(3, runner.migrate());
+
+        assertEquals(3, runner.currentVersion());
+        assertEquals(List.of("V1__baseline.sql", "V2__bill_history_indexes.sql", "V3__item_indexes.sql"),
+            appliedScripts());
+        assertTrue(exists("SELECT stock_gap FROM items"));
+    }
+
+    @Test
+    void rerunAppliesNothing() throws Exception {
+        new MigrationRunner(conn).migrate();
+
+        assertEquals(0, new MigrationRunner(conn).migrate());
+        assertEquals(3, new MigrationRunner(conn).currentVersion());
+    }
+
+    @Test
+    void appliesOnlyTheVersionsNotYetRecorded() throws Exception {
+        MigrationRunner runner = new MigrationRunner(conn);
+        runner.migrate();
+        execute("DELETE FROM schema_version WHERE version = 3");
+
+        assertEquals(1, runner.migrate());
+        assertEquals(3, runner.currentVersion());
+    }
+
+    @Test
+    void changedScriptWarnsWithoutBeingReapplied() throws Exception {
+        MigrationRunner runner = new MigrationRunner(conn);
+        runner.migrate();
+        execute("UPDATE schema_version SET checksum = 0 WHERE version = 2");
+
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        PrintStream original = System.err;
+        System.setErr(new PrintStream(err, true, StandardCharsets.UTF_8));
+        int applied;
+        try {
+            applied = runner.migrate();
+        } finally {
+            System.setErr(original);
+        }
+
+        assertEquals(0, applied);
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("V2__bill_history_indexes.sql changed"));
+    }
+
+    @Test
+    void outOfOrderIndexIsRejectedBeforeAnythingRuns() throws Exception {
+        MigrationRunner runner = new MigrationRunner(conn, "db/migration-test/out-of-order/");
+
+        assertThrows(IllegalStateException.class, runner::migrate);
+        assertEquals(0, runner.currentVersion());
+        assertFalse(exists("SELECT * FROM second_table"));
+    }
+
+    @Test
+    void badScriptNameIsRejected() {
+        MigrationRunner runner = new MigrationRunner(conn, "db/migration-test/bad-name/");
+
+        assertThrows(IllegalStateException.class, runner::migrate);
+    }
+
+    @Test
+    void failedScriptIsNotRecorded() throws Exception {
+        MigrationRunner runner = new MigrationRunner(conn, "db/migration-test/broken/");
+
+        SQLException failure = assertThrows(SQLException.class, runner::migrate);
+        assertTrue(failure.getMessage().startsWith("Migration V1__partial.sql failed"));
+        assertEquals(0, runner.currentVersion());
+    }
+
+    private List<String> appliedScripts() throws SQLException {
+        List<String> scripts = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT script FROM schema_version ORDER BY applied_at, version")) {
+            while (rs.next()) {
+                scripts.add(rs.getString(1));
+            }
+        }
+        return scripts;
+    }
+
+    private boolean exists(String query) {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeQuery(query).close();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,3 @@
+CREATE TABLE IF NOT EXISTS widgets (id INT PRIMARY KEY);
+
+INSERT INTO no_such_table VALUES (1);
@@ -0,0 +1 @@
+CREATE TABLE IF NOT EXISTS first_table (id INT PRIMARY KEY);
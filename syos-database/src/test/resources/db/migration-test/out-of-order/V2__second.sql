@@ -0,0 +1 @@
+CREATE TABLE IF NOT EXISTS second_table (id INT PRIMARY KEY);
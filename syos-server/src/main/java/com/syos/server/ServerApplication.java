@@ -1,8 +1,13 @@
 package com.syos.server;
 
 import com.syos.server.business.BusinessFacade;
+import com.syos.server.business.StockLedger;
+import com.syos.server.business.reporting.SalesReporting;
 import com.syos.server.concurrency.RequestProcessor;
+import com.syos.server.config.ServerConfig;
+import com.syos.server.domain.entities.Item;
 import com.syos.server.domain.repositories.*;
+import com.syos.server.infrastructure.database.DatabaseConnection;
 import com.syos.server.infrastructure.repositories.*;
 import com.syos.server.presentation.servlets.*;
 import com.syos.server.presentation.websocket.DashboardWebSocket;
@@ -14,7 +19,13 @@ import org.apache.tomcat.websocket.server.WsContextListener;
 import org.apache.catalina.connector.Connector;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.Executors;
 
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.websocket.DeploymentException;
 import javax.websocket.server.ServerContainer;
 
 /**
@@ -32,20 +43,65 @@ public class ServerApplication {
             System.out.println("===========================================\n");
 
             // Initialize repositories
-            IItemRepository itemRepo = new ItemRepositoryImpl();
-            IBillRepository billRepo = new BillRepositoryImpl();
-            ICustomerRepository customerRepo = new CustomerRepositoryImpl();
+            ItemRepositoryImpl jdbcItemRepo = new ItemRepositoryImpl();
+            StockReconciler stockReconciler = new StockReconciler(jdbcItemRepo);
+            CachingItemRepository itemRepo = new CachingItemRepository(jdbcItemRepo);
+            WriteBehindBillRepository billRepo = new WriteBehindBillRepository(new BillRepositoryImpl());
+            CachingCustomerRepository customerRepo = new CachingCustomerRepository(new CustomerRepositoryImpl());
+
+            // In-memory stock used to accept or refuse checkouts
+            StockLedger stockLedger = new StockLedger();
+            try {
+                stockLedger.load(itemRepo.findAll());
+            } catch (RuntimeException e) {
+                System.err.println("⚠ Stock ledger not loaded, items are added on first sale: " + e.getMessage());
+            }
+
+            // Sales rollups, rebuilt from saved bills and then kept in memory
+            SalesReporting salesReporting = new SalesReporting(itemCode ->
+                itemRepo.findByCode(itemCode).map(Item::getCategoryCode).orElse(null));
+            try {
+                salesReporting.load(billRepo);
+                System.out.println("✓ Sales rollups loaded");
+            } catch (RuntimeException e) {
+                System.err.println("⚠ Sales rollups not loaded, reports start empty: " + e.getMessage());
+            }
 
             // Initialize business facade
             BusinessFacade businessFacade = new BusinessFacade(
-                itemRepo, billRepo, customerRepo);
+                itemRepo, billRepo, customerRepo, stockLedger, salesReporting);
 
             // Initialize request processor (BLOCKING QUEUE CONCURRENCY)
             RequestProcessor requestProcessor = new RequestProcessor(businessFacade);
+            requestProcessor.registerMetrics(billRepo);
+            requestProcessor.registerMetrics(itemRepo);
+            requestProcessor.registerMetrics(customerRepo);
+            requestProcessor.registerMetrics(stockLedger);
+            requestProcessor.registerMetrics(stockReconciler);
+            requestProcessor.registerMetrics(salesReporting);
+
+            // Push reorder-level crossings to connected dashboards
+            itemRepo.addLowStockListener((item, nowLow) -> DashboardWebSocket.broadcast(
+                (nowLow ? "LOW_STOCK:" : "STOCK_RESTORED:") + item.getItemCode()));
+
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                requestProcessor.shutdown();
+                billRepo.close();
+                stockReconciler.close();
+                DatabaseConnection.shutdown();
+                System.out.println("\n✓ Server stopped");
+            }));
 
             // Create Tomcat instance
             Tomcat tomcat = new Tomcat();
             tomcat.setPort(PORT);
+
+            // In virtual mode servlet requests also run on virtual threads
+            Connector connector = tomcat.getConnector();
+            if ("virtual".equalsIgnoreCase(ServerConfig.getString("syos.execution.engine", "adaptive"))) {
+                connector.getProtocolHandler().setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+                System.out.println("✓ Tomcat connector using virtual threads");
+            }
             
             Context context = tomcat.addContext("", new File(".").getAbsolutePath());
 
@@ -63,8 +119,21 @@ public class ServerApplication {
                 .getAttribute(ServerContainer.class.getName());
                 
             if (container != null) {
-                //container.addEndpoint(DashboardWebSocket.class);
-                System.out.println("✓ WebSocket Registered: ws://localhost:" + PORT + "/ws/dashboard");
+                try {
+                    container.addEndpoint(DashboardWebSocket.class);
+
+                    // Tomcat only runs the upgrade filter for mapped paths; a plain GET gets 426
+                    Tomcat.addServlet(context, "DashboardWebSocket", new HttpServlet() {
+                        @Override
+                        protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                            resp.sendError(426, "WebSocket upgrade required");
+                        }
+                    });
+                    context.addServletMappingDecoded("/ws/dashboard", "DashboardWebSocket");
+                    System.out.println("✓ WebSocket Registered: ws://localhost:" + PORT + "/ws/dashboard");
+                } catch (DeploymentException e) {
+                    System.err.println("⚠ Failed to register WebSocket endpoint: " + e.getMessage());
+                }
             } else {
                 System.err.println("⚠ Failed to initialize WebSocket container!");
             }
@@ -75,8 +144,6 @@ public class ServerApplication {
             // Set base directory
             String baseDir = System.getProperty("java.io.tmpdir");
             tomcat.setBaseDir(baseDir);
-            @SuppressWarnings("unused")
-            Connector connector = tomcat.getConnector();
             
             // Create context with proper path
             String contextPath = "";
@@ -92,24 +159,38 @@ public class ServerApplication {
             // CheckoutServlet
             String checkoutName = "CheckoutServlet";
             CheckoutServlet checkoutServlet = new CheckoutServlet();
-            Tomcat.addServlet(context, checkoutName, checkoutServlet);
+            Tomcat.addServlet(context, checkoutName, checkoutServlet).setAsyncSupported(true);
             context.addServletMappingDecoded("/api/checkout", checkoutName);
             System.out.println("  ✓ Registered: POST /api/checkout");
 
             // InventoryServlet
             String inventoryName = "InventoryServlet";
             InventoryServlet inventoryServlet = new InventoryServlet();
-            Tomcat.addServlet(context, inventoryName, inventoryServlet);
+            Tomcat.addServlet(context, inventoryName, inventoryServlet).setAsyncSupported(true);
             context.addServletMappingDecoded("/api/inventory", inventoryName);
             System.out.println("  ✓ Registered: POST /api/inventory");
 
             // ItemServlet
             String itemName = "ItemServlet";
             ItemServlet itemServlet = new ItemServlet();
-            Tomcat.addServlet(context, itemName, itemServlet);
+            Tomcat.addServlet(context, itemName, itemServlet).setAsyncSupported(true);
             context.addServletMappingDecoded("/api/items", itemName);
             System.out.println("  ✓ Registered: GET  /api/items");
 
+            // ReportsServlet
+            String reportsName = "ReportsServlet";
+            ReportsServlet reportsServlet = new ReportsServlet();
+            Tomcat.addServlet(context, reportsName, reportsServlet).setAsyncSupported(true);
+            context.addServletMappingDecoded("/api/reports", reportsName);
+            System.out.println("  ✓ Registered: GET  /api/reports");
+
+            // BillServlet
+            String billsName = "BillServlet";
+            BillServlet billServlet = new BillServlet();
+            Tomcat.addServlet(context, billsName, billServlet).setAsyncSupported(true);
+            context.addServletMappingDecoded("/api/bills", billsName);
+            System.out.println("  ✓ Registered: GET  /api/bills");
+
             // ServerStatusServlet
             String statusName = "ServerStatusServlet";
             ServerStatusServlet statusServlet = new ServerStatusServlet();
@@ -117,6 +198,13 @@ public class ServerApplication {
             context.addServletMappingDecoded("/api/status", statusName);
             System.out.println("  ✓ Registered: GET  /api/status");
 
+            // FaultInjectionServlet (admin, localhost only by default)
+            String faultsName = "FaultInjectionServlet";
+            FaultInjectionServlet faultsServlet = new FaultInjectionServlet();
+            Tomcat.addServlet(context, faultsName, faultsServlet);
+            context.addServletMappingDecoded("/api/admin/faults", faultsName);
+            System.out.println("  ✓ Registered: GET/POST/DELETE /api/admin/faults");
+
             // Start server
             //tomcat.start();
             
@@ -127,6 +215,8 @@ public class ServerApplication {
             System.out.println("  - POST http://localhost:" + PORT + "/api/checkout");
             System.out.println("  - POST http://localhost:" + PORT + "/api/inventory");
             System.out.println("  - GET  http://localhost:" + PORT + "/api/items?action=getAll");
+            System.out.println("  - GET  http://localhost:" + PORT + "/api/reports?action=summary");
+            System.out.println("  - GET  http://localhost:" + PORT + "/api/bills?action=page");
             System.out.println("  - GET  http://localhost:" + PORT + "/api/status");
             System.out.println("\nPress Ctrl+C to stop");
             System.out.println("===========================================\n");
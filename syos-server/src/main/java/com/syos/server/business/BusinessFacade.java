@@ -1,10 +1,12 @@
 package com.syos.server.business;
 
 import com.syos.common.dto.*;
+import com.syos.server.business.reporting.SalesReporting;
 import com.syos.server.business.usecases.*;
 import com.syos.server.domain.entities.Item;
 import com.syos.server.domain.repositories.*;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Business Facade - coordinates all use cases
@@ -13,7 +15,10 @@ import java.util.List;
 public class BusinessFacade {
     private final CheckoutUseCase checkoutUseCase;
     private final InventoryManagementUseCase inventoryUseCase;
+    private final ReportingUseCase reportingUseCase;
+    private final BillHistoryUseCase billHistoryUseCase;
     private final IItemRepository itemRepository;
+    private final StockLedger stockLedger;
 
     /**
      * Updated Constructor: Uses the repositories passed from the Server context.
@@ -21,13 +26,18 @@ public class BusinessFacade {
      */
     public BusinessFacade(IItemRepository itemRepo, 
                          IBillRepository billRepo,
-                         ICustomerRepository customerRepo) {
+                         ICustomerRepository customerRepo,
+                         StockLedger stockLedger,
+                         SalesReporting salesReporting) {
         // Assign the passed-in repositories to the fields
         this.itemRepository = itemRepo; 
+        this.stockLedger = stockLedger;
         
         // Initialize Use Cases using the same repository instances
-        this.checkoutUseCase = new CheckoutUseCase(itemRepo, billRepo, customerRepo);
-        this.inventoryUseCase = new InventoryManagementUseCase(itemRepo);
+        this.checkoutUseCase = new CheckoutUseCase(itemRepo, billRepo, customerRepo, stockLedger, salesReporting);
+        this.inventoryUseCase = new InventoryManagementUseCase(itemRepo, stockLedger);
+        this.reportingUseCase = new ReportingUseCase(salesReporting, billRepo);
+        this.billHistoryUseCase = new BillHistoryUseCase(billRepo, customerRepo);
     }
 
     // --- Product Operations ---
@@ -50,6 +60,7 @@ public void addItem(ItemDto itemDto) {
 
     // Save to database via repository
     itemRepository.save(item);
+    stockLedger.seed(item.getItemCode(), 0);
 }
 
     // --- Checkout Operations ---
@@ -58,6 +69,26 @@ public void addItem(ItemDto itemDto) {
         return checkoutUseCase.execute(request);
     }
 
+    /**
+     * Checkout whose future completes once the bill is durable
+     */
+    public CompletableFuture<BillDto> processCheckoutAsync(CheckoutRequest request) {
+        return checkoutUseCase.executeAsync(request);
+    }
+
+    // --- Bill History Operations ---
+
+    /**
+     * The saved bill, or null if there is none with that id
+     */
+    public BillDto getBill(String billId) {
+        return billHistoryUseCase.getBill(billId);
+    }
+
+    public BillPage getBillsPage(BillPageRequest request) {
+        return billHistoryUseCase.getBillsPage(request);
+    }
+
     // --- Inventory Operations ---
 
     public void addInventory(InventoryBatchDto batch) {
@@ -72,11 +103,49 @@ public void addItem(ItemDto itemDto) {
         return inventoryUseCase.getAllItems();
     }
 
-    public List<ItemDto> searchItems(String query) {
-        return inventoryUseCase.searchItems(query);
+    public ItemPage getItemsPage(ItemPageRequest request) {
+        return inventoryUseCase.getItemsPage(request);
+    }
+
+    public InventorySummaryDto getInventorySummary() {
+        return inventoryUseCase.getInventorySummary();
+    }
+
+    public long getCatalogVersion() {
+        return inventoryUseCase.getCatalogVersion();
+    }
+
+    public CatalogChanges getItemChanges(long sinceVersion) {
+        return inventoryUseCase.getItemChanges(sinceVersion);
+    }
+
+    public List<ItemDto> searchItems(String query, int limit) {
+        return inventoryUseCase.searchItems(query, limit);
+    }
+
+    public List<ItemDto> autocomplete(String prefix, int limit) {
+        return inventoryUseCase.autocomplete(prefix, limit);
     }
 
     public List<ItemDto> getLowStockItems() {
         return inventoryUseCase.getLowStockItems();
     }
+
+    // --- Reporting Operations ---
+
+    public SalesSummaryDto getSalesSummary(SalesReportRequest request) {
+        return reportingUseCase.getSalesSummary(request);
+    }
+
+    public List<SalesPointDto> getSalesSeries(SalesReportRequest request) {
+        return reportingUseCase.getSalesSeries(request);
+    }
+
+    public List<TopItemDto> getTopSellers(TopSellersRequest request) {
+        return reportingUseCase.getTopSellers(request);
+    }
+
+    public List<SalesBreakdownDto> getSalesBreakdown(SalesBreakdownRequest request) {
+        return reportingUseCase.getSalesBreakdown(request);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,153 @@
+package com.syos.server.business;
+
+import com.syos.server.concurrency.MetricsSource;
+import com.syos.server.domain.entities.Item;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Authoritative in-memory stock for checkouts.
+ *
+ * Each item has an AtomicInteger holding the stock still free to sell.
+ * reserve() takes a whole cart with CAS loops and no locks: if any line
+ * cannot be covered, what was already taken is put back and the cart is
+ * refused. A reservation then ends in commit() (its stock movement was
+ * written with the bill) or release() (the checkout failed). The database
+ * catches up through the stock movement log, so it never decides whether
+ * a sale can go ahead.
+ */
+public class StockLedger implements MetricsSource {
+
+    private final Map<String, AtomicInteger> available = new ConcurrentHashMap<>();
+    private final AtomicLong reservedUnits = new AtomicLong();
+
+    // Metrics
+    private final LongAdder reservations = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder commits = new LongAdder();
+    private final LongAdder releases = new LongAdder();
+
+    /**
+     * Replaces the ledger with the given stock levels
+     */
+    public void load(Collection<Item> items) {
+        for (Item item : items) {
+            available.put(item.getItemCode(), new AtomicInteger(item.getCurrentStock()));
+        }
+    }
+
+    /**
+     * Starts tracking an item the ledger has not seen yet; does nothing once
+     * the item is tracked
+     */
+    public void seed(String itemCode, int stock) {
+        available.putIfAbsent(itemCode, new AtomicInteger(stock));
+    }
+
+    /**
+     * Takes the quantities (item code -> quantity) out of available stock,
+     * all or nothing
+     * @return null if reserved, otherwise the first item code that was short
+     * @throws IllegalArgumentException if a quantity is not positive
+     */
+    public String reserve(Map<String, Integer> quantities) {
+        // A negative take would add stock
+        for (Map.Entry<String, Integer> line : quantities.entrySet()) {
+            if (line.getValue() == null || line.getValue() <= 0) {
+                throw new IllegalArgumentException("Invalid quantity for item " + line.getKey() + ": " + line.getValue());
+            }
+        }
+
+        List<Map.Entry<String, Integer>> taken = new ArrayList<>(quantities.size());
+        for (Map.Entry<String, Integer> line : quantities.entrySet()) {
+            AtomicInteger stock = available.get(line.getKey());
+            if (stock == null || !tryTake(stock, line.getValue())) {
+                for (Map.Entry<String, Integer> undo : taken) {
+                    available.get(undo.getKey()).addAndGet(undo.getValue());
+                }
+                rejections.increment();
+                return line.getKey();
+            }
+            taken.add(line);
+        }
+
+        reservations.increment();
+        reservedUnits.addAndGet(total(quantities));
+        return null;
+    }
+
+    private static boolean tryTake(AtomicInteger stock, int quantity) {
+        while (true) {
+            int current = stock.get();
+            if (current < quantity) {
+                return false;
+            }
+            if (stock.compareAndSet(current, current - quantity)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * The reserved stock has been sold for good
+     */
+    public void commit(Map<String, Integer> quantities) {
+        reservedUnits.addAndGet(-total(quantities));
+        commits.increment();
+    }
+
+    /**
+     * The checkout failed; its reserved stock is available again
+     */
+    public void release(Map<String, Integer> quantities) {
+        for (Map.Entry<String, Integer> line : quantities.entrySet()) {
+            AtomicInteger stock = available.get(line.getKey());
+            if (stock != null) {
+                stock.addAndGet(line.getValue());
+            }
+        }
+        reservedUnits.addAndGet(-total(quantities));
+        releases.increment();
+    }
+
+    /**
+     * Committed stock was added (e.g. a new inventory batch). Ignored for an
+     * item not tracked yet, so seed it before the stock it is seeded from
+     * can include the addition.
+     */
+    public void add(String itemCode, int quantity) {
+        AtomicInteger stock = available.get(itemCode);
+        if (stock != null) {
+            stock.addAndGet(quantity);
+        }
+    }
+
+    private static long total(Map<String, Integer> quantities) {
+        long total = 0;
+        for (int quantity : quantities.values()) {
+            total += quantity;
+        }
+        return total;
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "stockLedger";
+    }
+
+    @Override
+    public Object getMetricsSnapshot() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("items", available.size());
+        stats.put("reservedUnits", reservedUnits.get());
+        stats.put("reservations", reservations.sum());
+        stats.put("rejections", rejections.sum());
+        stats.put("commits", commits.sum());
+        stats.put("releases", releases.sum());
+        return stats;
+    }
+}
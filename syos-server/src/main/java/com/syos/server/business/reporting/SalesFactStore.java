@@ -0,0 +1,436 @@
+package com.syos.server.business.reporting;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+
+/**
+ * Column store of sold bill lines for ad-hoc analytics.
+ *
+ * Lines are appended to fixed-size segments of primitive arrays: item and
+ * cashier dictionary IDs, epoch seconds, quantities and amounts in cents.
+ * An item's category is encoded once, when the item is first seen. A query
+ * scans each segment column by column, first narrowing a selection vector
+ * with one tight loop per filter, then summing the selected rows into
+ * arrays indexed by group key. Segments whose time range misses the query
+ * are skipped, and the rest are scanned in parallel on the fork-join pool.
+ *
+ * Only lines sold from the retained start onwards are kept: segments
+ * entirely older than it are dropped, and a query starting earlier is
+ * rejected rather than answered with partial totals.
+ *
+ * Appends are serialised; queries take no lock and see every row whose
+ * segment size they have read.
+ */
+public class SalesFactStore {
+
+    public enum GroupBy { ITEM, CATEGORY, CASHIER, DAY }
+
+    private static final int SEGMENT_ROWS = 1 << 16;
+    private static final String UNKNOWN = "UNKNOWN";
+
+    private final Dictionary items = new Dictionary();
+    private final Dictionary cashiers = new Dictionary();
+    private final Dictionary categories = new Dictionary();
+    private final Function<String, String> categoryOf;
+    private volatile int[] itemCategories = new int[256];
+    private volatile Segment[] segments = new Segment[0];
+    private volatile long retainedFrom = Long.MIN_VALUE;
+
+    /**
+     * @param categoryOf category code of an item code, or null if unknown
+     */
+    public SalesFactStore(Function<String, String> categoryOf) {
+        this.categoryOf = categoryOf;
+    }
+
+    public synchronized void append(long epochSecond, String cashierId, String itemCode,
+                                    int quantity, long amountCents) {
+        int item = items.idOf(itemCode);
+        if (item < 0) {
+            // First sale of this item: store its category before the ID is visible
+            item = items.size();
+            String category = categoryOf.apply(itemCode);
+            int[] categoriesByItem = itemCategories;
+            if (item >= categoriesByItem.length) {
+                categoriesByItem = Arrays.copyOf(categoriesByItem, categoriesByItem.length * 2);
+            }
+            categoriesByItem[item] = categories.encode(category == null ? UNKNOWN : category);
+            itemCategories = categoriesByItem;
+            items.encode(itemCode);
+        }
+        int cashier = cashiers.encode(cashierId == null ? UNKNOWN : cashierId);
+
+        Segment[] current = segments;
+        Segment tail = current.length == 0 ? null : current[current.length - 1];
+        if (tail == null || tail.size == SEGMENT_ROWS) {
+            tail = new Segment();
+            Segment[] grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = tail;
+            segments = grown;
+        }
+        tail.append(epochSecond, item, cashier, quantity, amountCents);
+    }
+
+    /**
+     * Drops the segments holding only lines sold before the given second.
+     * The retained start only moves forward.
+     */
+    public synchronized void retainFrom(long epochSecond) {
+        if (epochSecond <= retainedFrom) {
+            return;
+        }
+        retainedFrom = epochSecond;
+
+        Segment[] current = segments;
+        List<Segment> kept = new ArrayList<>(current.length);
+        for (Segment segment : current) {
+            if (segment.maxSecond >= epochSecond) {
+                kept.add(segment);
+            }
+        }
+        if (kept.size() < current.length) {
+            segments = kept.toArray(new Segment[0]);
+        }
+    }
+
+    /**
+     * Sums the lines matching the query, one group per key with sales
+     * @throws IllegalArgumentException if the query starts before the retained lines
+     */
+    public List<Group> aggregate(Query query) {
+        if (query.fromSecond < retainedFrom) {
+            throw new IllegalArgumentException("Sales lines are only kept from " +
+                Instant.ofEpochSecond(retainedFrom).atZone(query.zone).toLocalDate());
+        }
+
+        // Dictionary sizes bound the key space; rows appended meanwhile may be ignored
+        Segment[] scanned = segments;
+        int itemCount = items.size();
+        int[] categoriesByItem = itemCategories;
+
+        int itemFilter = query.itemCode == null ? -1 : items.idOf(query.itemCode);
+        int cashierFilter = query.cashierId == null ? -1 : cashiers.idOf(query.cashierId);
+        int categoryFilter = query.categoryCode == null ? -1 : categories.idOf(query.categoryCode);
+        if ((query.itemCode != null && itemFilter < 0)
+                || (query.cashierId != null && cashierFilter < 0)
+                || (query.categoryCode != null && categoryFilter < 0)
+                || scanned.length == 0) {
+            return new ArrayList<>();
+        }
+
+        int keys = switch (query.groupBy) {
+            case ITEM -> itemCount;
+            case CATEGORY -> categories.size();
+            case CASHIER -> cashiers.size();
+            case DAY -> query.days.length;
+        };
+
+        Scan scan = new Scan(scanned, 0, scanned.length, query, keys, itemCount,
+            categoriesByItem, itemFilter, cashierFilter, categoryFilter);
+        Totals totals = ForkJoinPool.commonPool().invoke(scan);
+
+        List<Group> groups = new ArrayList<>();
+        for (int key = 0; key < keys; key++) {
+            if (totals.lines[key] > 0) {
+                groups.add(new Group(decode(query, key), totals.lines[key],
+                    totals.quantity[key], totals.amountCents[key]));
+            }
+        }
+        if (query.groupBy != GroupBy.DAY) {
+            groups.sort(Comparator.comparingLong(Group::getAmountCents).reversed());
+        }
+        return groups;
+    }
+
+    public long getRows() {
+        long rows = 0;
+        for (Segment segment : segments) {
+            rows += segment.size;
+        }
+        return rows;
+    }
+
+    public int getSegments() {
+        return segments.length;
+    }
+
+    public long getRetainedFrom() {
+        return retainedFrom;
+    }
+
+    private String decode(Query query, int key) {
+        return switch (query.groupBy) {
+            case ITEM -> items.decode(key);
+            case CATEGORY -> categories.decode(key);
+            case CASHIER -> cashiers.decode(key);
+            case DAY -> query.days[key].toString();
+        };
+    }
+
+    /**
+     * Lines sold in [fromSecond, toSecond), optionally of one item, cashier
+     * or category (null for any). DAY groups are the local dates in zone,
+     * keyed yyyy-MM-dd, so a day is 23 or 25 hours long across a DST change.
+     */
+    public static class Query {
+        private final long fromSecond;
+        private final long toSecond;
+        private final String itemCode;
+        private final String cashierId;
+        private final String categoryCode;
+        private final GroupBy groupBy;
+        private final ZoneId zone;
+        // DAY groups: each date and the epoch second it starts (fromSecond for the first)
+        private final LocalDate[] days;
+        private final long[] dayStarts;
+
+        public Query(long fromSecond, long toSecond, String itemCode, String cashierId,
+                     String categoryCode, GroupBy groupBy, ZoneId zone) {
+            this.fromSecond = fromSecond;
+            this.toSecond = toSecond;
+            this.itemCode = itemCode;
+            this.cashierId = cashierId;
+            this.categoryCode = categoryCode;
+            this.groupBy = groupBy;
+            this.zone = zone;
+
+            List<LocalDate> dates = new ArrayList<>();
+            List<Long> starts = new ArrayList<>();
+            if (groupBy == GroupBy.DAY) {
+                LocalDate date = Instant.ofEpochSecond(fromSecond).atZone(zone).toLocalDate();
+                long start = fromSecond;
+                while (start < toSecond) {
+                    dates.add(date);
+                    starts.add(start);
+                    date = date.plusDays(1);
+                    start = date.atStartOfDay(zone).toEpochSecond();
+                }
+            }
+            this.days = dates.toArray(new LocalDate[0]);
+            this.dayStarts = starts.stream().mapToLong(Long::longValue).toArray();
+        }
+
+        private int dayOf(long epochSecond) {
+            int index = Arrays.binarySearch(dayStarts, epochSecond);
+            return index >= 0 ? index : -index - 2;
+        }
+    }
+
+    public static class Group {
+        private final String key;
+        private final long lines;
+        private final long quantity;
+        private final long amountCents;
+
+        Group(String key, long lines, long quantity, long amountCents) {
+            this.key = key;
+            this.lines = lines;
+            this.quantity = quantity;
+            this.amountCents = amountCents;
+        }
+
+        public String getKey() { return key; }
+        public long getLines() { return lines; }
+        public long getQuantity() { return quantity; }
+        public long getAmountCents() { return amountCents; }
+    }
+
+    /**
+     * One block of rows. Columns are written before size, which is volatile,
+     * so a reader sees every row below the size it read.
+     */
+    private static class Segment {
+        private final long[] epochSeconds = new long[SEGMENT_ROWS];
+        private final int[] itemIds = new int[SEGMENT_ROWS];
+        private final int[] cashierIds = new int[SEGMENT_ROWS];
+        private final int[] quantities = new int[SEGMENT_ROWS];
+        private final long[] amountCents = new long[SEGMENT_ROWS];
+        private long minSecond = Long.MAX_VALUE;
+        private long maxSecond = Long.MIN_VALUE;
+        private volatile int size;
+
+        void append(long epochSecond, int item, int cashier, int quantity, long amount) {
+            int row = size;
+            epochSeconds[row] = epochSecond;
+            itemIds[row] = item;
+            cashierIds[row] = cashier;
+            quantities[row] = quantity;
+            amountCents[row] = amount;
+            minSecond = Math.min(minSecond, epochSecond);
+            maxSecond = Math.max(maxSecond, epochSecond);
+            size = row + 1;
+        }
+    }
+
+    private static class Totals {
+        private final long[] lines;
+        private final long[] quantity;
+        private final long[] amountCents;
+
+        Totals(int keys) {
+            lines = new long[keys];
+            quantity = new long[keys];
+            amountCents = new long[keys];
+        }
+
+        Totals merge(Totals other) {
+            for (int key = 0; key < lines.length; key++) {
+                lines[key] += other.lines[key];
+                quantity[key] += other.quantity[key];
+                amountCents[key] += other.amountCents[key];
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Scans a range of segments, splitting down to one segment per task
+     */
+    private static class Scan extends RecursiveTask<Totals> {
+        private final Segment[] segments;
+        private final int from;
+        private final int to;
+        private final Query query;
+        private final int keys;
+        private final int itemCount;
+        private final int[] categoriesByItem;
+        private final int itemFilter;
+        private final int cashierFilter;
+        private final int categoryFilter;
+
+        Scan(Segment[] segments, int from, int to, Query query, int keys, int itemCount,
+             int[] categoriesByItem, int itemFilter, int cashierFilter, int categoryFilter) {
+            this.segments = segments;
+            this.from = from;
+            this.to = to;
+            this.query = query;
+            this.keys = keys;
+            this.itemCount = itemCount;
+            this.categoriesByItem = categoriesByItem;
+            this.itemFilter = itemFilter;
+            this.cashierFilter = cashierFilter;
+            this.categoryFilter = categoryFilter;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (to - from == 1) {
+                Totals totals = new Totals(keys);
+                scan(segments[from], totals);
+                return totals;
+            }
+            int middle = (from + to) >>> 1;
+            Scan left = new Scan(segments, from, middle, query, keys, itemCount,
+                categoriesByItem, itemFilter, cashierFilter, categoryFilter);
+            Scan right = new Scan(segments, middle, to, query, keys, itemCount,
+                categoriesByItem, itemFilter, cashierFilter, categoryFilter);
+            left.fork();
+            return right.compute().merge(left.join());
+        }
+
+        private void scan(Segment segment, Totals totals) {
+            int rows = segment.size;
+            if (rows == 0 || segment.maxSecond < query.fromSecond || segment.minSecond >= query.toSecond) {
+                return;
+            }
+
+            // Time filter into the selection vector, without branching on the row
+            int[] selected = new int[rows];
+            long[] seconds = segment.epochSeconds;
+            int count = 0;
+            for (int row = 0; row < rows; row++) {
+                selected[count] = row;
+                count += (seconds[row] >= query.fromSecond & seconds[row] < query.toSecond) ? 1 : 0;
+            }
+
+            int[] itemIds = segment.itemIds;
+            if (itemFilter >= 0) {
+                count = narrow(selected, count, itemIds, itemFilter);
+            }
+            if (cashierFilter >= 0) {
+                count = narrow(selected, count, segment.cashierIds, cashierFilter);
+            }
+
+            int[] quantities = segment.quantities;
+            long[] amounts = segment.amountCents;
+            for (int i = 0; i < count; i++) {
+                int row = selected[i];
+                int item = itemIds[row];
+                if (item >= itemCount) {
+                    continue; // appended after the query started
+                }
+                if (categoryFilter >= 0 && categoriesByItem[item] != categoryFilter) {
+                    continue;
+                }
+                int key = switch (query.groupBy) {
+                    case ITEM -> item;
+                    case CATEGORY -> categoriesByItem[item];
+                    case CASHIER -> segment.cashierIds[row];
+                    case DAY -> query.dayOf(seconds[row]);
+                };
+                if (key >= keys) {
+                    continue;
+                }
+                totals.lines[key]++;
+                totals.quantity[key] += quantities[row];
+                totals.amountCents[key] += amounts[row];
+            }
+        }
+
+        private static int narrow(int[] selected, int count, int[] column, int value) {
+            int kept = 0;
+            for (int i = 0; i < count; i++) {
+                int row = selected[i];
+                selected[kept] = row;
+                kept += column[row] == value ? 1 : 0;
+            }
+            return kept;
+        }
+    }
+
+    /**
+     * String to dense int ID. IDs are handed out under the store's lock;
+     * lookups and decoding need none.
+     */
+    private static class Dictionary {
+        private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+        private volatile String[] values = new String[64];
+        private volatile int size;
+
+        int encode(String value) {
+            Integer id = ids.get(value);
+            if (id != null) {
+                return id;
+            }
+            int next = size;
+            String[] current = values;
+            if (next == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[next] = value;
+            values = current;
+            ids.put(value, next);
+            size = next + 1;
+            return next;
+        }
+
+        int idOf(String value) {
+            Integer id = ids.get(value);
+            return id == null ? -1 : id;
+        }
+
+        String decode(int id) {
+            return values[id];
+        }
+
+        int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.syos.server.business.reporting;
+
+import com.syos.server.concurrency.MetricsSource;
+import com.syos.server.config.ServerConfig;
+import com.syos.server.domain.entities.Bill;
+import com.syos.server.domain.entities.BillItem;
+import com.syos.server.domain.entities.HourlySales;
+import com.syos.server.domain.entities.ItemSales;
+import com.syos.server.domain.repositories.IBillRepository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * In-memory sales reporting, fed with every committed bill.
+ * Rebuilt from the bills table at startup; afterwards reports never
+ * touch the database.
+ */
+public class SalesReporting implements MetricsSource {
+
+    private final SalesRollups rollups = new SalesRollups();
+    private final TopSellers topSellers = new TopSellers(
+        ServerConfig.getInt("syos.reports.topSellers.capacity", 100));
+    private final SalesFactStore factStore;
+    private final int factRetainDays = ServerConfig.getInt("syos.reports.facts.retainDays", 90);
+    private volatile LocalDate factsRetainedSince;
+
+    // Metrics
+    private final LongAdder billsRecorded = new LongAdder();
+    private final LongAdder queries = new LongAdder();
+
+    /**
+     * @param categoryOf category code of an item code, for category breakdowns
+     */
+    public SalesReporting(Function<String, String> categoryOf) {
+        this.factStore = new SalesFactStore(categoryOf);
+    }
+
+    /**
+     * Rebuilds the rollups, the current top seller windows and the retained
+     * bill lines of the fact store from bills already in the database
+     */
+    public void load(IBillRepository billRepository) {
+        for (HourlySales sales : billRepository.summarizeByHour()) {
+            rollups.record(sales.getHour(), sales.getPaymentMethod(), sales.getCashierId(),
+                sales.getTransactions(), toCents(sales.getTotal()), toCents(sales.getTax()));
+        }
+
+        LocalDate today = LocalDate.now();
+        for (TopSellers.Window window : TopSellers.Window.values()) {
+            LocalDate start = window.start(today);
+            for (ItemSales sales : billRepository.findItemSales(
+                    start.atStartOfDay(), window.end(start).atStartOfDay(), Integer.MAX_VALUE)) {
+                topSellers.record(window, start, sales.getItemCode(), sales.getItemName(),
+                    sales.getQuantity(), toCents(sales.getRevenue()));
+            }
+        }
+
+        retainFacts(today);
+        billRepository.forEachSalesLine(factsRetainedSince.atStartOfDay(), line ->
+            factStore.append(toEpochSecond(line.getTimestamp()), line.getCashierId(), line.getItemCode(),
+                line.getQuantity(), toCents(line.getSubtotal())));
+    }
+
+    /**
+     * Adds a bill once it has been committed
+     */
+    public void record(Bill bill) {
+        rollups.record(bill.getTimestamp(), bill.getPaymentMethod(), bill.getCashierId(),
+            1, toCents(bill.getTotal()), toCents(bill.getTax()));
+        LocalDate date = bill.getTimestamp().toLocalDate();
+        retainFacts(LocalDate.now());
+        long epochSecond = toEpochSecond(bill.getTimestamp());
+        for (BillItem item : bill.getItems()) {
+            long cents = toCents(item.getSubtotal());
+            topSellers.record(date, item.getItemCode(), item.getItemName(), item.getQuantity(), cents);
+            factStore.append(epochSecond, bill.getCashierId(), item.getItemCode(), item.getQuantity(), cents);
+        }
+        billsRecorded.increment();
+    }
+
+    /**
+     * Moves the fact store's window on once a day, dropping lines sold
+     * before its first day
+     */
+    private void retainFacts(LocalDate today) {
+        LocalDate since = today.minusDays(factRetainDays);
+        if (!since.equals(factsRetainedSince)) {
+            factsRetainedSince = since;
+            factStore.retainFrom(toEpochSecond(since.atStartOfDay()));
+        }
+    }
+
+    public SalesRollups getRollups() {
+        queries.increment();
+        return rollups;
+    }
+
+    public TopSellers getTopSellers() {
+        queries.increment();
+        return topSellers;
+    }
+
+    public SalesFactStore getFactStore() {
+        queries.increment();
+        return factStore;
+    }
+
+    public static long toEpochSecond(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+
+    public static long toCents(BigDecimal amount) {
+        if (amount == null) {
+            return 0;
+        }
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "salesReporting";
+    }
+
+    @Override
+    public Object getMetricsSnapshot() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("billsRecorded", billsRecorded.sum());
+        stats.put("queries", queries.sum());
+        stats.put("hourlyBuckets", rollups.size(SalesRollups.Granularity.HOUR));
+        stats.put("dailyBuckets", rollups.size(SalesRollups.Granularity.DAY));
+        stats.put("monthlyBuckets", rollups.size(SalesRollups.Granularity.MONTH));
+        stats.put("topSellersCapacity", topSellers.getCapacity());
+        stats.put("factRows", factStore.getRows());
+        stats.put("factSegments", factStore.getSegments());
+        stats.put("factsRetainedSince", String.valueOf(factsRetainedSince));
+        return stats;
+    }
+}
@@ -0,0 +1,118 @@
+package com.syos.server.business.reporting;
+
+import java.util.*;
+
+/**
+ * Space-Saving heavy-hitters summary with weighted updates.
+ *
+ * At most capacity counters are kept. An item without a counter takes over
+ * the smallest one and inherits its count as possible overcount (error),
+ * so memory stays constant however many items are sold. Every item sold
+ * more than total / capacity units is guaranteed to have a counter, and no
+ * count is more than its error above the true quantity. An update costs
+ * O(log capacity).
+ */
+public class SpaceSavingSketch {
+
+    private final int capacity;
+    private final Map<String, Counter> counters = new HashMap<>();
+    private final TreeSet<Counter> byCount = new TreeSet<>(
+        Comparator.comparingLong((Counter counter) -> counter.count)
+            .thenComparing(counter -> counter.itemCode));
+    private long total;
+
+    public SpaceSavingSketch(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Counts quantity units of the item; revenue is tracked from the time
+     * the item got its counter, so it is a lower bound after an eviction
+     */
+    public synchronized void add(String itemCode, String itemName, long quantity, long revenueCents) {
+        total += quantity;
+        Counter counter = counters.get(itemCode);
+        if (counter != null) {
+            byCount.remove(counter);
+        } else if (counters.size() < capacity) {
+            counter = new Counter(itemCode);
+            counters.put(itemCode, counter);
+        } else {
+            // Take over the smallest counter
+            Counter smallest = byCount.pollFirst();
+            counters.remove(smallest.itemCode);
+            counter = new Counter(itemCode);
+            counter.count = smallest.count;
+            counter.error = smallest.count;
+            counters.put(itemCode, counter);
+        }
+        counter.itemName = itemName;
+        counter.count += quantity;
+        counter.revenueCents += revenueCents;
+        byCount.add(counter);
+    }
+
+    /**
+     * Up to n items with the highest counts, highest first
+     */
+    public synchronized List<Entry> top(int n) {
+        List<Entry> top = new ArrayList<>(Math.min(n, counters.size()));
+        for (Counter counter : byCount.descendingSet()) {
+            if (top.size() == n) {
+                break;
+            }
+            top.add(new Entry(counter.itemCode, counter.itemName, counter.count,
+                counter.error, counter.revenueCents));
+        }
+        return top;
+    }
+
+    public synchronized long getTotal() {
+        return total;
+    }
+
+    public synchronized int size() {
+        return counters.size();
+    }
+
+    private static class Counter {
+        private final String itemCode;
+        private String itemName;
+        private long count;
+        private long error;
+        private long revenueCents;
+
+        Counter(String itemCode) {
+            this.itemCode = itemCode;
+        }
+    }
+
+    /**
+     * Estimated quantity of one item; the true quantity is between
+     * count - error and count
+     */
+    public static class Entry {
+        private final String itemCode;
+        private final String itemName;
+        private final long count;
+        private final long error;
+        private final long revenueCents;
+
+        Entry(String itemCode, String itemName, long count, long error, long revenueCents) {
+            this.itemCode = itemCode;
+            this.itemName = itemName;
+            this.count = count;
+            this.error = error;
+            this.revenueCents = revenueCents;
+        }
+
+        public String getItemCode() { return itemCode; }
+        public String getItemName() { return itemName; }
+        public long getCount() { return count; }
+        public long getError() { return error; }
+        public long getRevenueCents() { return revenueCents; }
+    }
+}
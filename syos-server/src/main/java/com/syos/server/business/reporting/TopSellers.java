@@ -0,0 +1,87 @@
+package com.syos.server.business.reporting;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Best-selling items per day and per week, each window summarised by a
+ * SpaceSavingSketch of fixed capacity. Only the most recent windows are
+ * kept, so memory does not grow with the number of items or sales.
+ */
+public class TopSellers {
+
+    public enum Window {
+        DAY, WEEK;
+
+        public LocalDate start(LocalDate date) {
+            return this == DAY ? date : date.with(DayOfWeek.MONDAY);
+        }
+
+        public LocalDate end(LocalDate start) {
+            return this == DAY ? start.plusDays(1) : start.plusWeeks(1);
+        }
+    }
+
+    private static final int WINDOWS_KEPT = 2;
+
+    private final int capacity;
+    private final Map<Window, ConcurrentSkipListMap<LocalDate, SpaceSavingSketch>> windows =
+        new ConcurrentHashMap<>();
+
+    public TopSellers(int capacity) {
+        this.capacity = capacity;
+        for (Window window : Window.values()) {
+            windows.put(window, new ConcurrentSkipListMap<>());
+        }
+    }
+
+    /**
+     * Counts a sold line in the day and week it was sold in
+     */
+    public void record(LocalDate date, String itemCode, String itemName, long quantity, long revenueCents) {
+        for (Window window : Window.values()) {
+            sketch(window, window.start(date)).add(itemCode, itemName, quantity, revenueCents);
+        }
+    }
+
+    /**
+     * Counts a sold line in one window only (used when loading)
+     */
+    public void record(Window window, LocalDate date, String itemCode, String itemName,
+                       long quantity, long revenueCents) {
+        sketch(window, window.start(date)).add(itemCode, itemName, quantity, revenueCents);
+    }
+
+    /**
+     * Estimated top n items of the window containing the date
+     */
+    public List<SpaceSavingSketch.Entry> top(Window window, LocalDate date, int n) {
+        SpaceSavingSketch sketch = windows.get(window).get(window.start(date));
+        return sketch == null ? List.of() : sketch.top(n);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int size(Window window) {
+        return windows.get(window).size();
+    }
+
+    private SpaceSavingSketch sketch(Window window, LocalDate start) {
+        ConcurrentSkipListMap<LocalDate, SpaceSavingSketch> sketches = windows.get(window);
+        SpaceSavingSketch sketch = sketches.get(start);
+        if (sketch == null) {
+            sketch = sketches.computeIfAbsent(start, key -> new SpaceSavingSketch(capacity));
+            // A new window has started: drop the oldest ones
+            while (sketches.size() > WINDOWS_KEPT) {
+                sketches.pollFirstEntry();
+            }
+        }
+        return sketch;
+    }
+}
@@ -0,0 +1,56 @@
+package com.syos.server.business.usecases;
+
+import com.syos.common.dto.*;
+import com.syos.server.domain.entities.Bill;
+import com.syos.server.domain.entities.Customer;
+import com.syos.server.domain.repositories.IBillRepository;
+import com.syos.server.domain.repositories.ICustomerRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BillHistoryUseCase {
+    private final IBillRepository billRepository;
+    private final ICustomerRepository customerRepository;
+
+    public BillHistoryUseCase(IBillRepository billRepository, ICustomerRepository customerRepository) {
+        this.billRepository = billRepository;
+        this.customerRepository = customerRepository;
+    }
+
+    public BillDto getBill(String billId) {
+        return billRepository.findById(billId)
+            .map(this::convertToDto)
+            .orElse(null);
+    }
+
+    public BillPage getBillsPage(BillPageRequest request) {
+        LocalDateTime start = request.getFrom() == null ? null : request.getFrom().atStartOfDay();
+        LocalDateTime end = request.getTo() == null ? null : request.getTo().plusDays(1).atStartOfDay();
+
+        // One extra row tells whether another page follows
+        List<Bill> bills = billRepository.findPage(
+            request.getBeforeBillId(), request.getLimit() + 1, request.getCustomerId(), start, end);
+
+        String nextCursor = null;
+        if (bills.size() > request.getLimit()) {
+            bills = bills.subList(0, request.getLimit());
+            nextCursor = bills.get(bills.size() - 1).getBillId();
+        }
+
+        List<BillDto> dtos = new ArrayList<>(bills.size());
+        for (Bill bill : bills) {
+            dtos.add(convertToDto(bill));
+        }
+        return new BillPage(dtos, nextCursor);
+    }
+
+    private BillDto convertToDto(Bill bill) {
+        // Customers are served from the repository cache, so this is not a query per bill
+        String customerName = customerRepository.findById(bill.getCustomerId())
+            .map(Customer::getName)
+            .orElse(bill.getCustomerId());
+        return CheckoutUseCase.convertToDto(bill, customerName);
+    }
+}
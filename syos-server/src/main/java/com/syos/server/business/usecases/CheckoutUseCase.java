@@ -1,27 +1,55 @@
 package com.syos.server.business.usecases;
 
 import com.syos.common.dto.*;
+import com.syos.server.business.StockLedger;
+import com.syos.server.business.reporting.SalesReporting;
 import com.syos.server.domain.entities.*;
 import com.syos.server.domain.repositories.*;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class CheckoutUseCase {
     private final IItemRepository itemRepository;
     private final IBillRepository billRepository;
     private final ICustomerRepository customerRepository;
+    private final StockLedger stockLedger;
+    private final SalesReporting salesReporting;
 
     public CheckoutUseCase(IItemRepository itemRepository, 
                           IBillRepository billRepository,
-                          ICustomerRepository customerRepository) {
+                          ICustomerRepository customerRepository,
+                          StockLedger stockLedger,
+                          SalesReporting salesReporting) {
         this.itemRepository = itemRepository;
         this.billRepository = billRepository;
         this.customerRepository = customerRepository;
+        this.stockLedger = stockLedger;
+        this.salesReporting = salesReporting;
     }
 
     public BillDto execute(CheckoutRequest request) {
+        try {
+            return executeAsync(request).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException
+                ? (RuntimeException) cause
+                : new RuntimeException(cause);
+        }
+    }
+
+    /**
+     * Validates, reserves stock in the ledger and queues the bill for write-behind.
+     * The returned future completes when the bill has been committed.
+     */
+    public CompletableFuture<BillDto> executeAsync(CheckoutRequest request) {
         // Validate customer
         Customer customer = customerRepository.findById(request.getCustomerId())
             .orElseThrow(() -> new RuntimeException("Customer not found"));
@@ -31,19 +59,41 @@ public class CheckoutUseCase {
         Bill bill = new Bill(billId, customer.getCustomerId(), 
                             request.getCashierId(), request.getPaymentMethod());
 
-        // Process each item
+        // Total quantity per item; the same item may appear on several lines.
+        // Each line is checked on its own so a negative line cannot offset another.
+        Map<String, Integer> requested = new LinkedHashMap<>();
         for (BillItemDto itemDto : request.getItems()) {
-            Item item = itemRepository.findByCode(itemDto.getItemCode())
-                .orElseThrow(() -> new RuntimeException("Item not found: " + itemDto.getItemCode()));
+            if (itemDto.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Quantity must be positive for item: " + itemDto.getItemCode());
+            }
+            requested.merge(itemDto.getItemCode(), itemDto.getQuantity(), Integer::sum);
+        }
+
+        // One query for every item in the cart
+        Map<String, Item> items = new HashMap<>();
+        for (Item item : itemRepository.findByCodes(requested.keySet())) {
+            items.put(item.getItemCode(), item);
+        }
 
-            // Check stock
-            if (item.getCurrentStock() < itemDto.getQuantity()) {
-                throw new RuntimeException("Insufficient stock for item: " + item.getName());
+        Map<String, Integer> movements = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> line : requested.entrySet()) {
+            Item item = items.get(line.getKey());
+            if (item == null) {
+                throw new RuntimeException("Item not found: " + line.getKey());
             }
+            stockLedger.seed(item.getItemCode(), item.getCurrentStock());
+            movements.put(item.getItemCode(), -line.getValue());
+        }
 
-            // Reduce stock
-            item.reduceStock(itemDto.getQuantity());
-            itemRepository.update(item);
+        // Check and reserve stock for the whole cart
+        String shortItem = stockLedger.reserve(requested);
+        if (shortItem != null) {
+            throw new RuntimeException("Insufficient stock for item: " + items.get(shortItem).getName());
+        }
+
+        // Process each item
+        for (BillItemDto itemDto : request.getItems()) {
+            Item item = items.get(itemDto.getItemCode());
 
             // Add to bill
             BillItem billItem = new BillItem(
@@ -55,14 +105,29 @@ public class CheckoutUseCase {
             bill.addItem(billItem);
         }
 
-        // Save bill
-        billRepository.save(bill);
+        // Stock movement and bill are committed in one transaction, respond once it is durable
+        CompletableFuture<Void> saved;
+        try {
+            saved = billRepository.saveAsync(bill,
+                () -> itemRepository.recordStockMovements(billId, movements));
+        } catch (RuntimeException e) {
+            stockLedger.release(requested);
+            throw e;
+        }
 
-        // Convert to DTO
-        return convertToDto(bill, customer.getName());
+        return saved
+            .whenComplete((ok, error) -> {
+                if (error == null) {
+                    stockLedger.commit(requested);
+                    salesReporting.record(bill);
+                } else {
+                    stockLedger.release(requested);
+                }
+            })
+            .thenApply(ok -> convertToDto(bill, customer.getName()));
     }
 
-    private BillDto convertToDto(Bill bill, String customerName) {
+    static BillDto convertToDto(Bill bill, String customerName) {
         BillDto dto = new BillDto();
         dto.setBillId(bill.getBillId());
         dto.setCustomerId(bill.getCustomerId());
@@ -1,25 +1,40 @@
 package com.syos.server.business.usecases;
 
 import com.syos.common.dto.*;
+import com.syos.server.business.StockLedger;
 import com.syos.server.domain.entities.Item;
 import com.syos.server.domain.repositories.IItemRepository;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class InventoryManagementUseCase {
     private final IItemRepository itemRepository;
+    private final StockLedger stockLedger;
 
-    public InventoryManagementUseCase(IItemRepository itemRepository) {
+    public InventoryManagementUseCase(IItemRepository itemRepository, StockLedger stockLedger) {
         this.itemRepository = itemRepository;
+        this.stockLedger = stockLedger;
     }
 
     public void addInventory(InventoryBatchDto batch) {
-        Item item = itemRepository.findByCode(batch.getItemCode())
-            .orElseThrow(() -> new RuntimeException("Item not found: " + batch.getItemCode()));
+        if (batch.getQuantity() < 0) {
+            throw new IllegalArgumentException("Quantity cannot be negative");
+        }
 
-        item.addStock(batch.getQuantity());
-        itemRepository.update(item);
+        // Track the item before the cache sees the batch: a checkout seeding
+        // from the cache afterwards would otherwise count the batch twice
+        itemRepository.findByCode(batch.getItemCode())
+            .ifPresent(item -> stockLedger.seed(item.getItemCode(), item.getCurrentStock()));
+
+        // Relative UPDATE, so it cannot overwrite logged sales
+        if (!itemRepository.incrementStock(batch.getItemCode(), batch.getQuantity())) {
+            throw new RuntimeException("Item not found: " + batch.getItemCode());
+        }
+        stockLedger.add(batch.getItemCode(), batch.getQuantity());
     }
 
     public ItemDto getItem(String itemCode) {
@@ -35,8 +50,68 @@ public class InventoryManagementUseCase {
             .collect(Collectors.toList());
     }
 
-    public List<ItemDto> searchItems(String query) {
-        return itemRepository.searchByName(query).stream()
+    public ItemPage getItemsPage(ItemPageRequest request) {
+        // One extra row tells whether another page follows
+        List<Item> items = itemRepository.findPage(
+            request.getAfterItemCode(), request.getLimit() + 1, request.getCategoryCode());
+
+        String nextCursor = null;
+        if (items.size() > request.getLimit()) {
+            items = items.subList(0, request.getLimit());
+            nextCursor = items.get(items.size() - 1).getItemCode();
+        }
+
+        return new ItemPage(
+            items.stream().map(this::convertToDto).collect(Collectors.toList()),
+            nextCursor);
+    }
+
+    public InventorySummaryDto getInventorySummary() {
+        return new InventorySummaryDto(itemRepository.getInventoryValue());
+    }
+
+    public long getCatalogVersion() {
+        return itemRepository.getCatalogVersion();
+    }
+
+    /**
+     * Items changed or deleted after the client's catalog version. If that
+     * version is unknown (e.g. from before a restart) the client is told to
+     * reload, rather than sent the whole catalog in one response.
+     */
+    public CatalogChanges getItemChanges(long sinceVersion) {
+        // Read the version first: a change racing this call is sent again next time
+        long version = itemRepository.getCatalogVersion();
+        List<String> changedCodes = itemRepository.findChangedSince(sinceVersion);
+
+        if (changedCodes == null) {
+            return new CatalogChanges(version, true, new ArrayList<>(), new ArrayList<>());
+        }
+
+        List<ItemDto> changed = new ArrayList<>(changedCodes.size());
+        Set<String> found = new HashSet<>();
+        for (Item item : itemRepository.findByCodes(changedCodes)) {
+            changed.add(convertToDto(item));
+            found.add(item.getItemCode());
+        }
+
+        List<String> deleted = new ArrayList<>();
+        for (String itemCode : changedCodes) {
+            if (!found.contains(itemCode)) {
+                deleted.add(itemCode);
+            }
+        }
+        return new CatalogChanges(version, false, changed, deleted);
+    }
+
+    public List<ItemDto> searchItems(String query, int limit) {
+        return itemRepository.search(query, limit).stream()
+            .map(this::convertToDto)
+            .collect(Collectors.toList());
+    }
+
+    public List<ItemDto> autocomplete(String prefix, int limit) {
+        return itemRepository.findByPrefix(prefix, limit).stream()
             .map(this::convertToDto)
             .collect(Collectors.toList());
     }
@@ -0,0 +1,119 @@
+package com.syos.server.business.usecases;
+
+import com.syos.common.dto.*;
+import com.syos.server.business.reporting.SalesFactStore;
+import com.syos.server.business.reporting.SalesReporting;
+import com.syos.server.business.reporting.SalesRollups;
+import com.syos.server.business.reporting.SpaceSavingSketch;
+import com.syos.server.business.reporting.TopSellers;
+import com.syos.server.domain.entities.ItemSales;
+import com.syos.server.domain.repositories.IBillRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ReportingUseCase {
+    private final SalesReporting salesReporting;
+    private final IBillRepository billRepository;
+
+    public ReportingUseCase(SalesReporting salesReporting, IBillRepository billRepository) {
+        this.salesReporting = salesReporting;
+        this.billRepository = billRepository;
+    }
+
+    public SalesSummaryDto getSalesSummary(SalesReportRequest request) {
+        SalesRollups.Totals totals = salesReporting.getRollups()
+            .summarize(startOf(request), endOf(request));
+
+        SalesSummaryDto dto = new SalesSummaryDto();
+        dto.setFrom(request.getFrom());
+        dto.setTo(request.getTo());
+        dto.setRevenue(SalesReporting.fromCents(totals.getRevenueCents()));
+        dto.setTax(SalesReporting.fromCents(totals.getTaxCents()));
+        dto.setTransactionCount(totals.getTransactions());
+        dto.setRevenueByPaymentMethod(toAmounts(totals.getRevenueByPaymentMethod()));
+        dto.setRevenueByCashier(toAmounts(totals.getRevenueByCashier()));
+        return dto;
+    }
+
+    public List<SalesPointDto> getSalesSeries(SalesReportRequest request) {
+        SalesRollups.Granularity granularity = SalesRollups.Granularity.valueOf(request.getGranularity());
+
+        List<SalesPointDto> points = new ArrayList<>();
+        salesReporting.getRollups().series(granularity, startOf(request), endOf(request))
+            .forEach((start, totals) -> points.add(new SalesPointDto(
+                start,
+                SalesReporting.fromCents(totals.getRevenueCents()),
+                SalesReporting.fromCents(totals.getTaxCents()),
+                totals.getTransactions())));
+        return points;
+    }
+
+    /**
+     * Best sellers of the current day or week, from the in-memory sketch
+     * or, in exact mode, recounted from the saved bill lines
+     */
+    public List<TopItemDto> getTopSellers(TopSellersRequest request) {
+        TopSellers.Window window = TopSellers.Window.valueOf(request.getWindow());
+        LocalDate start = window.start(LocalDate.now());
+        List<TopItemDto> top = new ArrayList<>();
+
+        if (request.isExact()) {
+            for (ItemSales sales : billRepository.findItemSales(
+                    start.atStartOfDay(), window.end(start).atStartOfDay(), request.getLimit())) {
+                top.add(new TopItemDto(sales.getItemCode(), sales.getItemName(),
+                    sales.getQuantity(), 0, sales.getRevenue()));
+            }
+        } else {
+            for (SpaceSavingSketch.Entry entry : salesReporting.getTopSellers()
+                    .top(window, start, request.getLimit())) {
+                top.add(new TopItemDto(entry.getItemCode(), entry.getItemName(), entry.getCount(),
+                    entry.getError(), SalesReporting.fromCents(entry.getRevenueCents())));
+            }
+        }
+        return top;
+    }
+
+    /**
+     * Ad-hoc breakdown of bill lines, scanned from the column store.
+     * Rejected when it starts before the days the store retains.
+     */
+    public List<SalesBreakdownDto> getSalesBreakdown(SalesBreakdownRequest request) {
+        SalesFactStore.GroupBy groupBy = SalesFactStore.GroupBy.valueOf(request.getGroupBy());
+        SalesFactStore.Query query = new SalesFactStore.Query(
+            SalesReporting.toEpochSecond(request.getFrom().atStartOfDay()),
+            SalesReporting.toEpochSecond(request.getTo().plusDays(1).atStartOfDay()),
+            request.getItemCode(), request.getCashierId(), request.getCategoryCode(), groupBy,
+            ZoneId.systemDefault());
+
+        List<SalesBreakdownDto> breakdown = new ArrayList<>();
+        for (SalesFactStore.Group group : salesReporting.getFactStore().aggregate(query)) {
+            if (breakdown.size() == request.getLimit()) {
+                break;
+            }
+            breakdown.add(new SalesBreakdownDto(group.getKey(), group.getLines(), group.getQuantity(),
+                SalesReporting.fromCents(group.getAmountCents())));
+        }
+        return breakdown;
+    }
+
+    private static LocalDateTime startOf(SalesReportRequest request) {
+        return request.getFrom().atStartOfDay();
+    }
+
+    private static LocalDateTime endOf(SalesReportRequest request) {
+        return request.getTo().plusDays(1).atStartOfDay();
+    }
+
+    private static Map<String, BigDecimal> toAmounts(Map<String, Long> cents) {
+        Map<String, BigDecimal> amounts = new LinkedHashMap<>();
+        cents.forEach((key, value) -> amounts.put(key, SalesReporting.fromCents(value)));
+        return amounts;
+    }
+}
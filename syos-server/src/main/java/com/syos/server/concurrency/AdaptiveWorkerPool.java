@@ -0,0 +1,221 @@
+package com.syos.server.concurrency;
+
+import com.syos.server.config.ServerConfig;
+
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Platform-thread worker pool that resizes itself between min and max.
+ *
+ * Every adjust interval a controller estimates the arrival rate (completions
+ * plus queue growth) and the mean service time, and applies Little's law:
+ * busy workers needed = arrival rate x service time. Enough extra capacity
+ * to drain the current backlog within targetDrainMs is added on top.
+ * The pool grows straight to the target but shrinks by at most half the
+ * difference per interval so a short lull does not throw workers away.
+ */
+public class AdaptiveWorkerPool implements ExecutionEngine {
+
+    private static final long IDLE_POLL_MS = 250;
+    private static final double EWMA_ALPHA = 0.3;
+    private static final double HEADROOM = 1.25;
+
+    private final int minWorkers;
+    private final int maxWorkers;
+    private final long adjustIntervalMs;
+    private final long targetDrainMs;
+
+    private final AtomicInteger liveWorkers = new AtomicInteger(0);
+    private final AtomicInteger busyWorkers = new AtomicInteger(0);
+    private final AtomicInteger workerIds = new AtomicInteger(0);
+    private final Set<Thread> workers = ConcurrentHashMap.newKeySet();
+    private volatile int targetWorkers;
+    private volatile boolean running;
+
+    private RequestQueue queue;
+    private Consumer<ClientRequest<?>> handler;
+    private ScheduledExecutorService controller;
+
+    // Controller inputs and outputs
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder serviceNanos = new LongAdder();
+    private final AtomicLong resizeEvents = new AtomicLong(0);
+    private volatile String lastResize = "none";
+    private volatile double meanServiceMs;
+    private volatile double throughput;
+    private int lastQueueDepth;
+
+    public AdaptiveWorkerPool(int minWorkers, int maxWorkers,
+                              long adjustIntervalMs, long targetDrainMs) {
+        this.minWorkers = Math.max(1, minWorkers);
+        this.maxWorkers = Math.max(this.minWorkers, maxWorkers);
+        this.adjustIntervalMs = adjustIntervalMs;
+        this.targetDrainMs = Math.max(1, targetDrainMs);
+        this.targetWorkers = this.minWorkers;
+    }
+
+    public static AdaptiveWorkerPool fromConfig() {
+        return new AdaptiveWorkerPool(
+            ServerConfig.getInt("syos.workers.min", 10),
+            ServerConfig.getInt("syos.workers.max", Runtime.getRuntime().availableProcessors() * 8),
+            ServerConfig.getLong("syos.workers.adjustIntervalMs", 1_000),
+            ServerConfig.getLong("syos.workers.targetDrainMs", 500));
+    }
+
+    @Override
+    public void start(RequestQueue queue, Consumer<ClientRequest<?>> handler) {
+        this.queue = queue;
+        this.handler = handler;
+        this.running = true;
+
+        addWorkers(minWorkers);
+
+        if (maxWorkers > minWorkers) {
+            controller = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "syos-pool-controller");
+                t.setDaemon(true);
+                return t;
+            });
+            controller.scheduleAtFixedRate(this::adjust,
+                adjustIntervalMs, adjustIntervalMs, TimeUnit.MILLISECONDS);
+        }
+        System.out.println("✓ Started " + minWorkers + " worker threads (adaptive, max " + maxWorkers + ")");
+    }
+
+    private void addWorkers(int target) {
+        int live;
+        while ((live = liveWorkers.get()) < target) {
+            if (liveWorkers.compareAndSet(live, live + 1)) {
+                Thread t = new Thread(new Worker(), "syos-worker-" + workerIds.getAndIncrement());
+                workers.add(t);
+                t.start();
+            }
+        }
+    }
+
+    private void adjust() {
+        try {
+            double intervalSec = adjustIntervalMs / 1000.0;
+            long done = completed.sumThenReset();
+            long nanos = serviceNanos.sumThenReset();
+
+            throughput = done / intervalSec;
+            if (done > 0) {
+                double sample = nanos / 1_000_000.0 / done;
+                meanServiceMs = meanServiceMs == 0
+                    ? sample
+                    : EWMA_ALPHA * sample + (1 - EWMA_ALPHA) * meanServiceMs;
+            }
+
+            int depth = queue.size();
+            double arrivalRate = Math.max(0, (done + depth - lastQueueDepth) / intervalSec);
+            lastQueueDepth = depth;
+
+            double drainRate = depth / (targetDrainMs / 1000.0);
+            double needed = (arrivalRate + drainRate) * (meanServiceMs / 1000.0) * HEADROOM;
+            int desired = Math.max(minWorkers, Math.min(maxWorkers, (int) Math.ceil(needed)));
+
+            int current = targetWorkers;
+            if (desired > current) {
+                resize(current, desired, arrivalRate, depth);
+            } else if (desired < current && busyWorkers.get() < current) {
+                resize(current, current - Math.max(1, (current - desired) / 2), arrivalRate, depth);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("⚠ Worker pool controller failed: " + e.getMessage());
+        }
+    }
+
+    private void resize(int from, int to, double arrivalRate, int depth) {
+        targetWorkers = to;
+        resizeEvents.incrementAndGet();
+        lastResize = String.format("%d -> %d (arrivals %.1f/s, service %.2f ms, queue %d)",
+            from, to, arrivalRate, meanServiceMs, depth);
+        System.out.println("[Pool] Resized " + lastResize);
+
+        if (to > from) {
+            addWorkers(to);
+        }
+        // Surplus workers retire themselves when they next go idle
+    }
+
+    @Override
+    public WorkerPoolStats getStats() {
+        return new WorkerPoolStats(
+            minWorkers == maxWorkers ? "fixed" : "adaptive",
+            liveWorkers.get(),
+            busyWorkers.get(),
+            minWorkers,
+            maxWorkers,
+            resizeEvents.get(),
+            lastResize,
+            meanServiceMs,
+            throughput
+        );
+    }
+
+    @Override
+    public void shutdown() {
+        running = false;
+        if (controller != null) {
+            controller.shutdownNow();
+        }
+        workers.forEach(Thread::interrupt);
+    }
+
+    /**
+     * Worker thread that processes requests from the queue
+     */
+    private class Worker implements Runnable {
+
+        @Override
+        public void run() {
+            String name = Thread.currentThread().getName();
+            System.out.println("Worker " + name + " started");
+            boolean retired = false;
+
+            try {
+                while (running && !Thread.currentThread().isInterrupted()) {
+                    if (tryRetire()) {
+                        retired = true;
+                        break;
+                    }
+
+                    ClientRequest<?> request = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                    if (request == null) {
+                        continue;
+                    }
+
+                    busyWorkers.incrementAndGet();
+                    long startTime = System.nanoTime();
+                    try {
+                        handler.accept(request);
+                    } finally {
+                        serviceNanos.add(System.nanoTime() - startTime);
+                        completed.increment();
+                        busyWorkers.decrementAndGet();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                if (!retired) {
+                    liveWorkers.decrementAndGet();
+                }
+                workers.remove(Thread.currentThread());
+            }
+
+            System.out.println("Worker " + name + (retired ? " retired" : " stopped"));
+        }
+
+        private boolean tryRetire() {
+            int live = liveWorkers.get();
+            return live > targetWorkers && liveWorkers.compareAndSet(live, live - 1);
+        }
+    }
+}
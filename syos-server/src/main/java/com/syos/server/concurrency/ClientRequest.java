@@ -37,7 +37,17 @@ public class ClientRequest<T> {
         ADD_ITEM,  
         GET_ITEM,
         SEARCH_ITEMS,
+        AUTOCOMPLETE,
         GET_ALL_ITEMS,
-        GET_LOW_STOCK
+        GET_ITEMS_PAGE,
+        GET_ITEM_CHANGES,
+        GET_LOW_STOCK,
+        GET_INVENTORY_SUMMARY,
+        SALES_SUMMARY,
+        SALES_SERIES,
+        TOP_SELLERS,
+        SALES_BREAKDOWN,
+        GET_BILL,
+        GET_BILLS_PAGE
     }
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.syos.server.concurrency;
+
+import com.syos.server.config.ServerConfig;
+
+import java.util.function.Consumer;
+
+/**
+ * Strategy for running the requests RequestProcessor has queued.
+ * The processor owns the queue and the request handling logic,
+ * an engine decides which threads drain the queue and how many.
+ */
+public interface ExecutionEngine {
+
+    /**
+     * Starts draining the queue, passing every request to the handler
+     */
+    void start(RequestQueue queue, Consumer<ClientRequest<?>> handler);
+
+    WorkerPoolStats getStats();
+
+    void shutdown();
+
+    /**
+     * Builds the engine selected by syos.execution.engine:
+     * "adaptive" (default) resizes between syos.workers.min and syos.workers.max,
+     * "fixed" keeps exactly syos.workers.min threads,
+     * "virtual" runs each request on its own virtual thread.
+     */
+    static ExecutionEngine fromConfig() {
+        String engine = ServerConfig.getString("syos.execution.engine", "adaptive");
+        switch (engine.toLowerCase()) {
+            case "fixed":
+                int workers = ServerConfig.getInt("syos.workers.min", 10);
+                return new AdaptiveWorkerPool(workers, workers, 1_000, 500);
+            case "adaptive":
+                return AdaptiveWorkerPool.fromConfig();
+            case "virtual":
+                return VirtualThreadEngine.fromConfig();
+            default:
+                throw new IllegalArgumentException("Unknown execution engine: " + engine);
+        }
+    }
+}
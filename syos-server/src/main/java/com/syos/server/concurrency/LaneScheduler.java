@@ -0,0 +1,213 @@
+package com.syos.server.concurrency;
+
+import com.syos.server.config.ServerConfig;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Multi-lane request queue with one bounded lane per RequestType.
+ *
+ * Dequeuing is deficit weighted round robin: at the start of a round every
+ * non-empty lane is given credit equal to its weight, and each dequeue takes
+ * from the first lane (in priority order) that still has credit. CHECKOUT
+ * has the highest weight and is always scanned first, so a customer at the
+ * till waits behind at most one round's worth of other traffic, while a
+ * burst of dashboard refreshes still makes progress instead of starving.
+ * Each lane has its own capacity so a flood of one type cannot cause
+ * another type to be rejected.
+ */
+public class LaneScheduler implements RequestQueue {
+
+    private static final Map<ClientRequest.RequestType, Integer> DEFAULT_WEIGHTS =
+        new EnumMap<>(ClientRequest.RequestType.class);
+
+    static {
+        DEFAULT_WEIGHTS.put(ClientRequest.RequestType.CHECKOUT, 8);
+        DEFAULT_WEIGHTS.put(ClientRequest.RequestType.ADD_INVENTORY, 4);
+        DEFAULT_WEIGHTS.put(ClientRequest.RequestType.ADD_ITEM, 4);
+        DEFAULT_WEIGHTS.put(ClientRequest.RequestType.GET_ITEM, 4);
+        DEFAULT_WEIGHTS.put(ClientRequest.RequestType.SEARCH_ITEMS, 4);
+        DEFAULT_WEIGHTS.put(ClientRequest.RequestType.AUTOCOMPLETE, 4);
+        DEFAULT_WEIGHTS.put(ClientRequest.RequestType.GET_LOW_STOCK, 2);
+        DEFAULT_WEIGHTS.put(ClientRequest.RequestType.GET_INVENTORY_SUMMARY, 2);
+        DEFAULT_WEIGHTS.put(ClientRequest.RequestType.GET_ALL_ITEMS, 1);
+        DEFAULT_WEIGHTS.put(ClientRequest.RequestType.GET_ITEMS_PAGE, 2);
+        DEFAULT_WEIGHTS.put(ClientRequest.RequestType.GET_ITEM_CHANGES, 4);
+        DEFAULT_WEIGHTS.put(ClientRequest.RequestType.SALES_SUMMARY, 2);
+        DEFAULT_WEIGHTS.put(ClientRequest.RequestType.SALES_SERIES, 2);
+        DEFAULT_WEIGHTS.put(ClientRequest.RequestType.TOP_SELLERS, 2);
+        DEFAULT_WEIGHTS.put(ClientRequest.RequestType.SALES_BREAKDOWN, 1);
+        DEFAULT_WEIGHTS.put(ClientRequest.RequestType.GET_BILL, 4);
+        DEFAULT_WEIGHTS.put(ClientRequest.RequestType.GET_BILLS_PAGE, 2);
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Map<ClientRequest.RequestType, Lane> lanes =
+        new EnumMap<>(ClientRequest.RequestType.class);
+    private final List<Lane> priorityOrder = new ArrayList<>();
+    private int count;
+
+    public LaneScheduler(int laneCapacity) {
+        for (ClientRequest.RequestType type : ClientRequest.RequestType.values()) {
+            int weight = Math.max(1, ServerConfig.getInt(
+                "syos.lanes.weight." + type.name(), DEFAULT_WEIGHTS.getOrDefault(type, 1)));
+            Lane lane = new Lane(type, weight, laneCapacity);
+            lanes.put(type, lane);
+            priorityOrder.add(lane);
+        }
+        // Heaviest lane first; ties keep RequestType declaration order
+        priorityOrder.sort(Comparator.comparingInt((Lane l) -> l.weight).reversed());
+    }
+
+    @Override
+    public boolean offer(ClientRequest<?> request, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        Lane lane = lanes.get(request.getType());
+        long nanos = unit.toNanos(timeout);
+
+        lock.lockInterruptibly();
+        try {
+            while (lane.entries.size() >= lane.capacity) {
+                if (nanos <= 0) {
+                    lane.rejected.incrementAndGet();
+                    return false;
+                }
+                nanos = lane.notFull.awaitNanos(nanos);
+            }
+            lane.entries.addLast(new Entry(request, System.nanoTime()));
+            lane.enqueued.incrementAndGet();
+            count++;
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public ClientRequest<?> take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                notEmpty.await();
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public ClientRequest<?> poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Must be called with the lock held and count > 0
+     */
+    private ClientRequest<?> dequeue() {
+        for (int pass = 0; pass < 2; pass++) {
+            for (Lane lane : priorityOrder) {
+                if (lane.credit > 0 && !lane.entries.isEmpty()) {
+                    lane.credit--;
+                    return lane.poll();
+                }
+            }
+            // Every backlogged lane has spent its credit: start a new round
+            for (Lane lane : priorityOrder) {
+                lane.credit = lane.entries.isEmpty() ? 0 : lane.weight;
+            }
+        }
+        throw new IllegalStateException("Scheduler count out of sync with lanes");
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<LaneStats> getStats() {
+        List<LaneStats> stats = new ArrayList<>();
+        lock.lock();
+        try {
+            for (Lane lane : priorityOrder) {
+                stats.add(new LaneStats(
+                    lane.type.name(),
+                    lane.weight,
+                    lane.entries.size(),
+                    lane.enqueued.get(),
+                    lane.dequeued.get(),
+                    lane.rejected.get(),
+                    lane.waitTimes.snapshot()
+                ));
+            }
+        } finally {
+            lock.unlock();
+        }
+        return stats;
+    }
+
+    private static class Entry {
+        private final ClientRequest<?> request;
+        private final long enqueuedNanos;
+
+        Entry(ClientRequest<?> request, long enqueuedNanos) {
+            this.request = request;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+
+    private class Lane {
+        private final ClientRequest.RequestType type;
+        private final int weight;
+        private final int capacity;
+        private final ArrayDeque<Entry> entries = new ArrayDeque<>();
+        private final Condition notFull = lock.newCondition();
+        private int credit;
+
+        private final AtomicLong enqueued = new AtomicLong(0);
+        private final AtomicLong dequeued = new AtomicLong(0);
+        private final AtomicLong rejected = new AtomicLong(0);
+        private final LatencyHistogram waitTimes = new LatencyHistogram();
+
+        Lane(ClientRequest.RequestType type, int weight, int capacity) {
+            this.type = type;
+            this.weight = weight;
+            this.capacity = capacity;
+        }
+
+        ClientRequest<?> poll() {
+            Entry entry = entries.pollFirst();
+            count--;
+            dequeued.incrementAndGet();
+            waitTimes.recordNanos(System.nanoTime() - entry.enqueuedNanos);
+            if (entries.isEmpty()) {
+                credit = 0;
+            }
+            notFull.signal();
+            return entry.request;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.syos.server.concurrency;
+
+/**
+ * Point-in-time view of one scheduler lane
+ */
+public class LaneStats {
+    private final String lane;
+    private final int weight;
+    private final int depth;
+    private final long enqueued;
+    private final long dequeued;
+    private final long rejected;
+    private final LatencyHistogram.Snapshot waitTime;
+
+    public LaneStats(String lane, int weight, int depth, long enqueued,
+                     long dequeued, long rejected, LatencyHistogram.Snapshot waitTime) {
+        this.lane = lane;
+        this.weight = weight;
+        this.depth = depth;
+        this.enqueued = enqueued;
+        this.dequeued = dequeued;
+        this.rejected = rejected;
+        this.waitTime = waitTime;
+    }
+
+    public String getLane() { return lane; }
+    public int getWeight() { return weight; }
+    public int getDepth() { return depth; }
+    public long getEnqueued() { return enqueued; }
+    public long getDequeued() { return dequeued; }
+    public long getRejected() { return rejected; }
+    public LatencyHistogram.Snapshot getWaitTime() { return waitTime; }
+}
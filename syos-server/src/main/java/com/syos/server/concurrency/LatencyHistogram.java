@@ -0,0 +1,78 @@
+package com.syos.server.concurrency;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with fixed millisecond buckets.
+ * Recording is a single LongAdder increment so it is safe on hot paths.
+ */
+public class LatencyHistogram {
+
+    private static final long[] BOUNDS_MICROS = {
+        100, 500, 1_000, 5_000, 10_000, 50_000, 100_000, 500_000, 1_000_000
+    };
+    private static final String[] LABELS = {
+        "<0.1ms", "<0.5ms", "<1ms", "<5ms", "<10ms", "<50ms", "<100ms", "<500ms", "<1s", ">=1s"
+    };
+
+    private final LongAdder[] buckets = new LongAdder[LABELS.length];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final LongAccumulator maxMicros = new LongAccumulator(Long::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void recordNanos(long nanos) {
+        long micros = Math.max(0, nanos / 1_000);
+        int index = BOUNDS_MICROS.length;
+        for (int i = 0; i < BOUNDS_MICROS.length; i++) {
+            if (micros < BOUNDS_MICROS[i]) {
+                index = i;
+                break;
+            }
+        }
+        buckets[index].increment();
+        count.increment();
+        totalMicros.add(micros);
+        maxMicros.accumulate(micros);
+    }
+
+    public Snapshot snapshot() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < LABELS.length; i++) {
+            counts.put(LABELS[i], buckets[i].sum());
+        }
+        long n = count.sum();
+        double mean = n == 0 ? 0.0 : totalMicros.sum() / 1_000.0 / n;
+        return new Snapshot(n, mean, maxMicros.get() / 1_000.0, counts);
+    }
+
+    /**
+     * Immutable view of the histogram, serialised as part of ServerMetrics
+     */
+    public static class Snapshot {
+        private final long count;
+        private final double meanMs;
+        private final double maxMs;
+        private final Map<String, Long> buckets;
+
+        public Snapshot(long count, double meanMs, double maxMs, Map<String, Long> buckets) {
+            this.count = count;
+            this.meanMs = meanMs;
+            this.maxMs = maxMs;
+            this.buckets = buckets;
+        }
+
+        public long getCount() { return count; }
+        public double getMeanMs() { return meanMs; }
+        public double getMaxMs() { return maxMs; }
+        public Map<String, Long> getBuckets() { return buckets; }
+    }
+}
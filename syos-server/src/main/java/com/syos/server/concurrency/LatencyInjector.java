@@ -0,0 +1,100 @@
+package com.syos.server.concurrency;
+
+import com.syos.server.config.ServerConfig;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Off-by-default latency and fault injection for rehearsing slow paths.
+ *
+ * When disabled, apply() is a single volatile read. When enabled, requests
+ * whose type has a profile are delayed by a sampled amount and may fail
+ * with an injected error. Toggled at runtime through /api/admin/faults.
+ */
+public class LatencyInjector {
+
+    private volatile boolean enabled;
+    // Replaced whole on every change, so a request sees one consistent set
+    private volatile Map<ClientRequest.RequestType, LatencyProfile> profiles =
+        new EnumMap<>(ClientRequest.RequestType.class);
+
+    private final LongAdder delayedRequests = new LongAdder();
+    private final LongAdder injectedDelayMs = new LongAdder();
+    private final LongAdder injectedFailures = new LongAdder();
+
+    public LatencyInjector() {
+        this.enabled = ServerConfig.getBoolean("syos.faults.enabled", false);
+    }
+
+    /**
+     * Called by the worker before the request is processed
+     * @throws InjectedFaultException if the profile decides this request fails
+     */
+    public void apply(ClientRequest.RequestType type) throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        LatencyProfile profile = profiles.get(type);
+        if (profile == null) {
+            return;
+        }
+
+        long delay = profile.sampleDelayMs();
+        if (delay > 0) {
+            delayedRequests.increment();
+            injectedDelayMs.add(delay);
+            Thread.sleep(delay);
+        }
+        if (profile.shouldFail()) {
+            injectedFailures.increment();
+            throw new InjectedFaultException("Injected fault for " + type);
+        }
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        System.out.println((enabled ? "⚠ Fault injection ENABLED " : "✓ Fault injection disabled ") + profiles.keySet());
+    }
+
+    public void setProfile(ClientRequest.RequestType type, LatencyProfile profile) {
+        setProfiles(Map.of(type, profile));
+    }
+
+    /**
+     * Validates every profile, then installs them together; on an invalid
+     * profile nothing is changed
+     */
+    public synchronized void setProfiles(Map<ClientRequest.RequestType, LatencyProfile> changes) {
+        for (LatencyProfile profile : changes.values()) {
+            profile.validate();
+        }
+        Map<ClientRequest.RequestType, LatencyProfile> updated = new EnumMap<>(profiles);
+        updated.putAll(changes);
+        profiles = updated;
+    }
+
+    public synchronized void clearProfiles() {
+        profiles = new EnumMap<>(ClientRequest.RequestType.class);
+    }
+
+    public Map<ClientRequest.RequestType, LatencyProfile> getProfiles() {
+        return new EnumMap<>(profiles);
+    }
+
+    public long getDelayedRequests() { return delayedRequests.sum(); }
+    public long getInjectedDelayMs() { return injectedDelayMs.sum(); }
+    public long getInjectedFailures() { return injectedFailures.sum(); }
+
+    /**
+     * Failure raised on purpose by a latency profile
+     */
+    public static class InjectedFaultException extends RuntimeException {
+        public InjectedFaultException(String message) {
+            super(message);
+        }
+    }
+}
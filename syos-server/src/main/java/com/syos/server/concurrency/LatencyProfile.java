@@ -0,0 +1,77 @@
+package com.syos.server.concurrency;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Synthetic delay (and optional failure) applied to one request type.
+ * Built from JSON by the admin endpoint, e.g.
+ * {"distribution":"UNIFORM","minMs":50,"maxMs":250,"failureRate":0.01}
+ */
+public class LatencyProfile {
+
+    public enum Distribution {
+        /** Always delayMs */
+        FIXED,
+        /** Evenly spread between minMs and maxMs */
+        UNIFORM,
+        /** Exponential with mean delayMs, the long tail of a congested dependency */
+        EXPONENTIAL,
+        /** Gaussian around delayMs with stdDevMs, never negative */
+        NORMAL
+    }
+
+    private Distribution distribution = Distribution.FIXED;
+    private long delayMs;
+    private long minMs;
+    private long maxMs;
+    private long stdDevMs;
+    private double failureRate;
+
+    public LatencyProfile() {}
+
+    public LatencyProfile(Distribution distribution, long delayMs, long minMs,
+                          long maxMs, long stdDevMs, double failureRate) {
+        this.distribution = distribution;
+        this.delayMs = delayMs;
+        this.minMs = minMs;
+        this.maxMs = maxMs;
+        this.stdDevMs = stdDevMs;
+        this.failureRate = failureRate;
+    }
+
+    public long sampleDelayMs() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Distribution d = distribution != null ? distribution : Distribution.FIXED;
+        switch (d) {
+            case UNIFORM:
+                return maxMs > minMs ? random.nextLong(minMs, maxMs + 1) : minMs;
+            case EXPONENTIAL:
+                return Math.round(-delayMs * Math.log(1.0 - random.nextDouble()));
+            case NORMAL:
+                return Math.max(0, Math.round(delayMs + stdDevMs * random.nextGaussian()));
+            case FIXED:
+            default:
+                return delayMs;
+        }
+    }
+
+    public boolean shouldFail() {
+        return failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate;
+    }
+
+    public void validate() {
+        if (delayMs < 0 || minMs < 0 || maxMs < 0 || stdDevMs < 0) {
+            throw new IllegalArgumentException("Delays must not be negative");
+        }
+        if (failureRate < 0 || failureRate > 1) {
+            throw new IllegalArgumentException("failureRate must be between 0 and 1");
+        }
+    }
+
+    public Distribution getDistribution() { return distribution; }
+    public long getDelayMs() { return delayMs; }
+    public long getMinMs() { return minMs; }
+    public long getMaxMs() { return maxMs; }
+    public long getStdDevMs() { return stdDevMs; }
+    public double getFailureRate() { return failureRate; }
+}
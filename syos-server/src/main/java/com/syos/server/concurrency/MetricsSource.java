@@ -0,0 +1,18 @@
+package com.syos.server.concurrency;
+
+/**
+ * A component that contributes a section to /api/status.
+ * Register it with RequestProcessor.registerMetrics().
+ */
+public interface MetricsSource {
+
+    /**
+     * Key of the section in ServerMetrics.components
+     */
+    String getMetricsName();
+
+    /**
+     * Snapshot object, serialised to JSON as-is
+     */
+    Object getMetricsSnapshot();
+}
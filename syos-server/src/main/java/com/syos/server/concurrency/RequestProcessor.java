@@ -2,46 +2,54 @@ package com.syos.server.concurrency;
 
 import com.syos.server.business.BusinessFacade;
 import com.syos.common.dto.*;
+import com.syos.server.config.ServerConfig;
+import com.syos.server.infrastructure.database.DatabaseConnection;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.*;
 
 
 public class RequestProcessor {
     
-    private static final int QUEUE_CAPACITY = 1000;
-    private static final int NUM_WORKERS = 10;
+    private static final int DEFAULT_QUEUE_CAPACITY = 1000;
+    private static final long DEFAULT_OFFER_TIMEOUT_MS = 100;
 
-    private final BlockingQueue<ClientRequest<?>> requestQueue;
-    private final ExecutorService workerPool;
+    private final LaneScheduler requestQueue;
+    private final ExecutionEngine executionEngine;
     private final BusinessFacade businessFacade;
-    private final AtomicBoolean running;
+    private final LatencyInjector latencyInjector;
+    private final long offerTimeoutMs;
+    private final List<MetricsSource> metricsSources = new CopyOnWriteArrayList<>();
     
     // Metrics
     private final AtomicLong processedCount;
     private final AtomicLong rejectedCount;
+    private final AtomicLong abandonedCount;
     
     public RequestProcessor(BusinessFacade businessFacade) {
-        this.requestQueue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
-        this.workerPool = Executors.newFixedThreadPool(NUM_WORKERS);
+        this(businessFacade, ExecutionEngine.fromConfig());
+    }
+
+    public RequestProcessor(BusinessFacade businessFacade, ExecutionEngine executionEngine) {
+        this.requestQueue = new LaneScheduler(
+            ServerConfig.getInt("syos.queue.capacity", DEFAULT_QUEUE_CAPACITY));
+        this.executionEngine = executionEngine;
         this.businessFacade = businessFacade;
-        this.running = new AtomicBoolean(true);
+        this.latencyInjector = new LatencyInjector();
+        this.offerTimeoutMs = ServerConfig.getLong("syos.queue.offerTimeoutMs", DEFAULT_OFFER_TIMEOUT_MS);
         this.processedCount = new AtomicLong(0);
         this.rejectedCount = new AtomicLong(0);
+        this.abandonedCount = new AtomicLong(0);
         
-        startWorkers();
-    }
-
-    private void startWorkers() {
-        for (int i = 0; i < NUM_WORKERS; i++) {
-            workerPool.submit(new WorkerThread(i));
-        }
-        System.out.println("✓ Started " + NUM_WORKERS + " worker threads");
+        executionEngine.start(requestQueue, this::handleRequest);
     }
 
     public <T> CompletableFuture<T> submitRequest(ClientRequest<T> request) {
         try {
-            boolean accepted = requestQueue.offer(request, 5, TimeUnit.SECONDS);
+            boolean accepted = requestQueue.offer(request, offerTimeoutMs, TimeUnit.MILLISECONDS);
             if (!accepted) {
                 rejectedCount.incrementAndGet();
                 request.completeExceptionally(
@@ -55,112 +63,208 @@ public class RequestProcessor {
     }
 
     /**
-     * Worker thread that processes requests from the queue
+     * Called by the execution engine on one of its threads for every queued request
      */
-    private class WorkerThread implements Runnable {
-        private final int workerId;
-
-        public WorkerThread(int workerId) {
-            this.workerId = workerId;
+    private void handleRequest(ClientRequest<?> request) {
+        // The caller already gave up (HTTP timeout), don't spend a worker on it
+        if (request.getFuture().isDone()) {
+            abandonedCount.incrementAndGet();
+            return;
         }
 
-        @Override
-        public void run() {
-            System.out.println("Worker " + workerId + " started");
-            
-             while (running.get() && !Thread.currentThread().isInterrupted()) {
-                 try {
-                     ClientRequest<?> request = requestQueue.take();
-
-
-                     try { Thread.sleep(200); } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                     } 
-
-                     long startTime = System.nanoTime();
-                     processRequest(request);
-
-                    long duration = System.nanoTime() - startTime;
-                    
-                    processedCount.incrementAndGet();
-                    
-                    System.out.printf("[Worker %d] Processed %s in %.2f ms (Queue: %d)%n",
-                        workerId, request.getType(), 
-                        duration / 1_000_000.0, requestQueue.size());
-                    
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    break;
+        long startTime = System.nanoTime();
+        String thread = Thread.currentThread().getName();
+
+        // A checkout is only processed once its bill is committed
+        processRequest(request).whenComplete((result, error) -> {
+            long duration = System.nanoTime() - startTime;
+
+            processedCount.incrementAndGet();
+
+            System.out.printf("[%s] Processed %s in %.2f ms (Queue: %d)%n",
+                thread, request.getType(), duration / 1_000_000.0, requestQueue.size());
+        });
+    }
+
+    /**
+     * Starts the request's work
+     * @return completes when the work is done; already complete unless it is a checkout
+     */
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<?> processRequest(ClientRequest<T> request) {
+        try {
+            latencyInjector.apply(request.getType());
+
+            switch (request.getType()) {
+                // Completes later, once the bill's write-behind batch is committed
+                case CHECKOUT -> {
+                    return processCheckout((ClientRequest<BillDto>) request);
                 }
+                case ADD_INVENTORY -> request.complete((T) processAddInventory((ClientRequest<Void>) request));
+                case ADD_ITEM -> request.complete((T) processAddItem((ClientRequest<Void>) request));
+                case GET_ITEM -> request.complete((T) processGetItem((ClientRequest<ItemDto>) request));
+                case SEARCH_ITEMS -> request.complete((T) processSearchItems((ClientRequest<java.util.List<ItemDto>>) request));
+                case AUTOCOMPLETE -> request.complete((T) processAutocomplete((ClientRequest<java.util.List<ItemDto>>) request));
+                case GET_ALL_ITEMS -> request.complete((T) processGetAllItems((ClientRequest<java.util.List<ItemDto>>) request));
+                case GET_ITEMS_PAGE -> request.complete((T) processGetItemsPage((ClientRequest<ItemPage>) request));
+                case GET_ITEM_CHANGES -> request.complete((T) processGetItemChanges((ClientRequest<CatalogChanges>) request));
+                case GET_LOW_STOCK -> request.complete((T) processGetLowStock((ClientRequest<java.util.List<ItemDto>>) request));
+                case GET_INVENTORY_SUMMARY -> request.complete((T) processGetInventorySummary((ClientRequest<InventorySummaryDto>) request));
+                case SALES_SUMMARY -> request.complete((T) processSalesSummary((ClientRequest<SalesSummaryDto>) request));
+                case SALES_SERIES -> request.complete((T) processSalesSeries((ClientRequest<java.util.List<SalesPointDto>>) request));
+                case TOP_SELLERS -> request.complete((T) processTopSellers((ClientRequest<java.util.List<TopItemDto>>) request));
+                case SALES_BREAKDOWN -> request.complete((T) processSalesBreakdown((ClientRequest<java.util.List<SalesBreakdownDto>>) request));
+                case GET_BILL -> request.complete((T) processGetBill((ClientRequest<BillDto>) request));
+                case GET_BILLS_PAGE -> request.complete((T) processGetBillsPage((ClientRequest<BillPage>) request));
+                // A type added without a case here must not leave its caller waiting
+                default -> request.completeExceptionally(
+                    new IllegalArgumentException("Unsupported request type: " + request.getType()));
             }
-            
-            System.out.println("Worker " + workerId + " stopped");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            request.completeExceptionally(e);
+        } catch (Exception e) {
+            request.completeExceptionally(e);
         }
+        return request.getFuture();
+    }
 
-        @SuppressWarnings("unchecked")
-private <T> void processRequest(ClientRequest<T> request) {
-    try {
-        T result = switch (request.getType()) {
-            case CHECKOUT -> (T) processCheckout((ClientRequest<BillDto>) request);
-            case ADD_INVENTORY -> (T) processAddInventory((ClientRequest<Void>) request);
-            case ADD_ITEM -> (T) processAddItem((ClientRequest<Void>) request); // <--- ADD THIS
-            case GET_ITEM -> (T) processGetItem((ClientRequest<ItemDto>) request);
-            case SEARCH_ITEMS -> (T) processSearchItems((ClientRequest<java.util.List<ItemDto>>) request);
-            case GET_ALL_ITEMS -> (T) processGetAllItems((ClientRequest<java.util.List<ItemDto>>) request);
-            case GET_LOW_STOCK -> (T) processGetLowStock((ClientRequest<java.util.List<ItemDto>>) request);
-        };
-        request.complete(result);
-    } catch (Exception e) {
-        request.completeExceptionally(e);
-    }
-}
     private Void processAddItem(ClientRequest<Void> request) {
         ItemDto itemDto = (ItemDto) request.getPayload();
         businessFacade.addItem(itemDto); 
         return null;
     }
-        
-        private BillDto processCheckout(ClientRequest<BillDto> request) {
-            CheckoutRequest checkoutReq = (CheckoutRequest) request.getPayload();
-            return businessFacade.processCheckout(checkoutReq);
-        }
 
-        private Void processAddInventory(ClientRequest<Void> request) {
-            InventoryBatchDto batch = (InventoryBatchDto) request.getPayload();
-            businessFacade.addInventory(batch);
-            return null;
-        }
+    private CompletableFuture<?> processCheckout(ClientRequest<BillDto> request) {
+        CheckoutRequest checkoutReq = (CheckoutRequest) request.getPayload();
+        return businessFacade.processCheckoutAsync(checkoutReq).whenComplete((bill, error) -> {
+            if (error == null) {
+                request.complete(bill);
+            } else {
+                request.completeExceptionally(
+                    error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+            }
+        });
+    }
 
-        private ItemDto processGetItem(ClientRequest<ItemDto> request) {
-            String itemCode = (String) request.getPayload();
-            return businessFacade.getItem(itemCode);
-        }
+    private Void processAddInventory(ClientRequest<Void> request) {
+        InventoryBatchDto batch = (InventoryBatchDto) request.getPayload();
+        businessFacade.addInventory(batch);
+        return null;
+    }
 
-        private java.util.List<ItemDto> processSearchItems(ClientRequest<java.util.List<ItemDto>> request) {
-            String query = (String) request.getPayload();
-            return businessFacade.searchItems(query);
-        }
+    private ItemDto processGetItem(ClientRequest<ItemDto> request) {
+        String itemCode = (String) request.getPayload();
+        return businessFacade.getItem(itemCode);
+    }
 
-        private java.util.List<ItemDto> processGetAllItems(ClientRequest<java.util.List<ItemDto>> request) {
-            return businessFacade.getAllItems();
-        }
+    private java.util.List<ItemDto> processSearchItems(ClientRequest<java.util.List<ItemDto>> request) {
+        SearchRequest search = (SearchRequest) request.getPayload();
+        return businessFacade.searchItems(search.getQuery(), search.getLimit());
+    }
 
-        private java.util.List<ItemDto> processGetLowStock(ClientRequest<java.util.List<ItemDto>> request) {
-            return businessFacade.getLowStockItems();
-        }
+    private java.util.List<ItemDto> processAutocomplete(ClientRequest<java.util.List<ItemDto>> request) {
+        SearchRequest search = (SearchRequest) request.getPayload();
+        return businessFacade.autocomplete(search.getQuery(), search.getLimit());
+    }
+
+    private java.util.List<ItemDto> processGetAllItems(ClientRequest<java.util.List<ItemDto>> request) {
+        return businessFacade.getAllItems();
+    }
+
+    private ItemPage processGetItemsPage(ClientRequest<ItemPage> request) {
+        ItemPageRequest pageRequest = (ItemPageRequest) request.getPayload();
+        return businessFacade.getItemsPage(pageRequest);
+    }
+
+    private CatalogChanges processGetItemChanges(ClientRequest<CatalogChanges> request) {
+        long since = (Long) request.getPayload();
+        return businessFacade.getItemChanges(since);
+    }
+
+    private java.util.List<ItemDto> processGetLowStock(ClientRequest<java.util.List<ItemDto>> request) {
+        return businessFacade.getLowStockItems();
+    }
+
+    private InventorySummaryDto processGetInventorySummary(ClientRequest<InventorySummaryDto> request) {
+        return businessFacade.getInventorySummary();
+    }
+
+    private SalesSummaryDto processSalesSummary(ClientRequest<SalesSummaryDto> request) {
+        SalesReportRequest report = (SalesReportRequest) request.getPayload();
+        return businessFacade.getSalesSummary(report);
+    }
+
+    private java.util.List<SalesPointDto> processSalesSeries(ClientRequest<java.util.List<SalesPointDto>> request) {
+        SalesReportRequest report = (SalesReportRequest) request.getPayload();
+        return businessFacade.getSalesSeries(report);
+    }
+
+    private java.util.List<TopItemDto> processTopSellers(ClientRequest<java.util.List<TopItemDto>> request) {
+        TopSellersRequest topSellers = (TopSellersRequest) request.getPayload();
+        return businessFacade.getTopSellers(topSellers);
+    }
+
+    private java.util.List<SalesBreakdownDto> processSalesBreakdown(ClientRequest<java.util.List<SalesBreakdownDto>> request) {
+        SalesBreakdownRequest breakdown = (SalesBreakdownRequest) request.getPayload();
+        return businessFacade.getSalesBreakdown(breakdown);
+    }
+
+    private BillDto processGetBill(ClientRequest<BillDto> request) {
+        String billId = (String) request.getPayload();
+        return businessFacade.getBill(billId);
+    }
+
+    private BillPage processGetBillsPage(ClientRequest<BillPage> request) {
+        BillPageRequest pageRequest = (BillPageRequest) request.getPayload();
+        return businessFacade.getBillsPage(pageRequest);
+    }
+
+    /**
+     * Current catalog version, read directly instead of through the queue
+     * so conditional GETs can be answered without any work
+     */
+    public long getCatalogVersion() {
+        return businessFacade.getCatalogVersion();
     }
 
     public ServerMetrics getMetrics() {
+        WorkerPoolStats workerPool = executionEngine.getStats();
         return new ServerMetrics(
             requestQueue.size(),
             processedCount.get(),
             rejectedCount.get(),
-            NUM_WORKERS
+            abandonedCount.get(),
+            workerPool.getCurrentWorkers(),
+            workerPool,
+            requestQueue.getStats(),
+            latencyInjector.isEnabled(),
+            DatabaseConnection.getPoolStats(),
+            collectComponentMetrics()
         );
     }
 
+    /**
+     * Adds a component's section to /api/status
+     */
+    public void registerMetrics(MetricsSource source) {
+        metricsSources.add(source);
+    }
+
+    private Map<String, Object> collectComponentMetrics() {
+        Map<String, Object> components = new LinkedHashMap<>();
+        for (MetricsSource source : metricsSources) {
+            components.put(source.getMetricsName(), source.getMetricsSnapshot());
+        }
+        return components;
+    }
+
+    public LatencyInjector getLatencyInjector() {
+        return latencyInjector;
+    }
+
     public void shutdown() {
-        running.set(false);
-        workerPool.shutdown();
+        executionEngine.shutdown();
     }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.syos.server.concurrency;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queue between the servlets and the execution engine
+ */
+public interface RequestQueue {
+
+    /**
+     * Enqueues the request, waiting up to the timeout for space
+     * @return false if the request could not be queued in time
+     */
+    boolean offer(ClientRequest<?> request, long timeout, TimeUnit unit) throws InterruptedException;
+
+    ClientRequest<?> take() throws InterruptedException;
+
+    /**
+     * @return the next request, or null if none arrived within the timeout
+     */
+    ClientRequest<?> poll(long timeout, TimeUnit unit) throws InterruptedException;
+
+    int size();
+}
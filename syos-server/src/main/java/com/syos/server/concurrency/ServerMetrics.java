@@ -1,21 +1,50 @@
 package com.syos.server.concurrency;
 
+import com.syos.server.infrastructure.database.ConnectionPoolStats;
+
+import java.util.List;
+import java.util.Map;
+
 public class ServerMetrics {
     private final int queueSize;
     private final long processedRequests;
     private final long rejectedRequests;
+    private final long abandonedRequests;
     private final int workerThreads;
+    private final WorkerPoolStats workerPool;
+    private final List<LaneStats> lanes;
+    private final boolean faultInjectionEnabled;
+    private final ConnectionPoolStats connectionPool;
+    private final Map<String, Object> components;
 
     public ServerMetrics(int queueSize, long processedRequests, 
-                        long rejectedRequests, int workerThreads) {
+                        long rejectedRequests, long abandonedRequests,
+                        int workerThreads,
+                        WorkerPoolStats workerPool,
+                        List<LaneStats> lanes,
+                        boolean faultInjectionEnabled,
+                        ConnectionPoolStats connectionPool,
+                        Map<String, Object> components) {
         this.queueSize = queueSize;
         this.processedRequests = processedRequests;
         this.rejectedRequests = rejectedRequests;
+        this.abandonedRequests = abandonedRequests;
         this.workerThreads = workerThreads;
+        this.workerPool = workerPool;
+        this.lanes = lanes;
+        this.faultInjectionEnabled = faultInjectionEnabled;
+        this.connectionPool = connectionPool;
+        this.components = components;
     }
 
     public int getQueueSize() { return queueSize; }
     public long getProcessedRequests() { return processedRequests; }
     public long getRejectedRequests() { return rejectedRequests; }
+    public long getAbandonedRequests() { return abandonedRequests; }
     public int getWorkerThreads() { return workerThreads; }
-}
\ No newline at end of file
+    public WorkerPoolStats getWorkerPool() { return workerPool; }
+    public List<LaneStats> getLanes() { return lanes; }
+    public boolean isFaultInjectionEnabled() { return faultInjectionEnabled; }
+    public ConnectionPoolStats getConnectionPool() { return connectionPool; }
+    public Map<String, Object> getComponents() { return components; }
+}
@@ -0,0 +1,116 @@
+package com.syos.server.concurrency;
+
+import com.syos.server.config.ServerConfig;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Runs every request on its own virtual thread.
+ *
+ * A single dispatcher takes requests off the queue and starts a thread for
+ * each, up to maxInFlight at once; past that, requests wait in the queue
+ * where rejection and ordering still apply. Database access is limited
+ * where it happens: a request only waits for one of the connection pool's
+ * permits when it borrows a connection, so cache-only requests (search,
+ * autocomplete, low stock, reports) are never held back by database work.
+ * Blocking in JDBC parks the virtual thread instead of holding a platform
+ * thread.
+ */
+public class VirtualThreadEngine implements ExecutionEngine {
+
+    private final int maxInFlight;
+    private final Semaphore slots;
+    private final ThreadFactory threadFactory;
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+    private volatile boolean running;
+    private Thread dispatcher;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder serviceNanos = new LongAdder();
+    private long lastStatsNanos = System.nanoTime();
+    private long lastStatsCompleted;
+
+    public VirtualThreadEngine(int maxInFlight) {
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.slots = new Semaphore(this.maxInFlight);
+        this.threadFactory = Thread.ofVirtual().name("syos-vt-", 0).factory();
+    }
+
+    public static VirtualThreadEngine fromConfig() {
+        return new VirtualThreadEngine(ServerConfig.getInt("syos.virtual.maxInFlight", 10_000));
+    }
+
+    @Override
+    public void start(RequestQueue queue, Consumer<ClientRequest<?>> handler) {
+        running = true;
+        dispatcher = new Thread(() -> dispatch(queue, handler), "syos-vt-dispatcher");
+        dispatcher.start();
+        System.out.println("✓ Started virtual-thread engine (up to " + maxInFlight + " requests in flight)");
+    }
+
+    private void dispatch(RequestQueue queue, Consumer<ClientRequest<?>> handler) {
+        while (running && !Thread.currentThread().isInterrupted()) {
+            try {
+                slots.acquire();
+                ClientRequest<?> request;
+                try {
+                    request = queue.take();
+                } catch (InterruptedException e) {
+                    slots.release();
+                    throw e;
+                }
+
+                inFlight.incrementAndGet();
+                threadFactory.newThread(() -> run(request, handler)).start();
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void run(ClientRequest<?> request, Consumer<ClientRequest<?>> handler) {
+        long startTime = System.nanoTime();
+        try {
+            handler.accept(request);
+        } finally {
+            serviceNanos.add(System.nanoTime() - startTime);
+            completed.increment();
+            inFlight.decrementAndGet();
+            slots.release();
+        }
+    }
+
+    @Override
+    public synchronized WorkerPoolStats getStats() {
+        long now = System.nanoTime();
+        long done = completed.sum();
+        double elapsedSec = (now - lastStatsNanos) / 1_000_000_000.0;
+        double throughput = elapsedSec > 0 ? (done - lastStatsCompleted) / elapsedSec : 0;
+        lastStatsNanos = now;
+        lastStatsCompleted = done;
+
+        return new WorkerPoolStats(
+            "virtual",
+            inFlight.get(),
+            inFlight.get(),
+            0,
+            maxInFlight,
+            0,
+            "n/a",
+            done == 0 ? 0 : serviceNanos.sum() / 1_000_000.0 / done,
+            throughput
+        );
+    }
+
+    @Override
+    public void shutdown() {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+    }
+}
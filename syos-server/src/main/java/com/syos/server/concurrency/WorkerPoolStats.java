@@ -0,0 +1,41 @@
+package com.syos.server.concurrency;
+
+/**
+ * Point-in-time view of an execution engine
+ */
+public class WorkerPoolStats {
+    private final String engine;
+    private final int currentWorkers;
+    private final int busyWorkers;
+    private final int minWorkers;
+    private final int maxWorkers;
+    private final long resizeEvents;
+    private final String lastResize;
+    private final double meanServiceTimeMs;
+    private final double throughputPerSecond;
+
+    public WorkerPoolStats(String engine, int currentWorkers, int busyWorkers,
+                           int minWorkers, int maxWorkers, long resizeEvents,
+                           String lastResize, double meanServiceTimeMs,
+                           double throughputPerSecond) {
+        this.engine = engine;
+        this.currentWorkers = currentWorkers;
+        this.busyWorkers = busyWorkers;
+        this.minWorkers = minWorkers;
+        this.maxWorkers = maxWorkers;
+        this.resizeEvents = resizeEvents;
+        this.lastResize = lastResize;
+        this.meanServiceTimeMs = meanServiceTimeMs;
+        this.throughputPerSecond = throughputPerSecond;
+    }
+
+    public String getEngine() { return engine; }
+    public int getCurrentWorkers() { return currentWorkers; }
+    public int getBusyWorkers() { return busyWorkers; }
+    public int getMinWorkers() { return minWorkers; }
+    public int getMaxWorkers() { return maxWorkers; }
+    public long getResizeEvents() { return resizeEvents; }
+    public String getLastResize() { return lastResize; }
+    public double getMeanServiceTimeMs() { return meanServiceTimeMs; }
+    public double getThroughputPerSecond() { return throughputPerSecond; }
+}
@@ -28,6 +28,23 @@ public class Bill {
         this.total = BigDecimal.ZERO;
     }
 
+    /**
+     * Rebuilds a saved bill with its stored totals and timestamp
+     */
+    public Bill(String billId, String customerId, String cashierId, String paymentMethod,
+                List<BillItem> items, BigDecimal subtotal, BigDecimal tax, BigDecimal total,
+                LocalDateTime timestamp) {
+        this.billId = billId;
+        this.customerId = customerId;
+        this.cashierId = cashierId;
+        this.paymentMethod = paymentMethod;
+        this.items = new ArrayList<>(items);
+        this.subtotal = subtotal;
+        this.tax = tax;
+        this.total = total;
+        this.timestamp = timestamp;
+    }
+
     public void addItem(BillItem item) {
         items.add(item);
         calculateTotals();
@@ -0,0 +1,34 @@
+package com.syos.server.domain.entities;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Sales totals of one hour for one payment method and cashier
+ */
+public class HourlySales {
+    private LocalDateTime hour;
+    private String paymentMethod;
+    private String cashierId;
+    private long transactions;
+    private BigDecimal total;
+    private BigDecimal tax;
+
+    public HourlySales(LocalDateTime hour, String paymentMethod, String cashierId,
+                       long transactions, BigDecimal total, BigDecimal tax) {
+        this.hour = hour;
+        this.paymentMethod = paymentMethod;
+        this.cashierId = cashierId;
+        this.transactions = transactions;
+        this.total = total;
+        this.tax = tax;
+    }
+
+    // Getters
+    public LocalDateTime getHour() { return hour; }
+    public String getPaymentMethod() { return paymentMethod; }
+    public String getCashierId() { return cashierId; }
+    public long getTransactions() { return transactions; }
+    public BigDecimal getTotal() { return total; }
+    public BigDecimal getTax() { return tax; }
+}
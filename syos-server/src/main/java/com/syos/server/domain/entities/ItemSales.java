@@ -0,0 +1,26 @@
+package com.syos.server.domain.entities;
+
+import java.math.BigDecimal;
+
+/**
+ * Units and revenue of one item over a period
+ */
+public class ItemSales {
+    private String itemCode;
+    private String itemName;
+    private long quantity;
+    private BigDecimal revenue;
+
+    public ItemSales(String itemCode, String itemName, long quantity, BigDecimal revenue) {
+        this.itemCode = itemCode;
+        this.itemName = itemName;
+        this.quantity = quantity;
+        this.revenue = revenue;
+    }
+
+    // Getters
+    public String getItemCode() { return itemCode; }
+    public String getItemName() { return itemName; }
+    public long getQuantity() { return quantity; }
+    public BigDecimal getRevenue() { return revenue; }
+}
@@ -0,0 +1,31 @@
+package com.syos.server.domain.entities;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A sold bill line with the time and cashier of its bill
+ */
+public class SalesLine {
+    private LocalDateTime timestamp;
+    private String cashierId;
+    private String itemCode;
+    private int quantity;
+    private BigDecimal subtotal;
+
+    public SalesLine(LocalDateTime timestamp, String cashierId, String itemCode,
+                     int quantity, BigDecimal subtotal) {
+        this.timestamp = timestamp;
+        this.cashierId = cashierId;
+        this.itemCode = itemCode;
+        this.quantity = quantity;
+        this.subtotal = subtotal;
+    }
+
+    // Getters
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public String getCashierId() { return cashierId; }
+    public String getItemCode() { return itemCode; }
+    public int getQuantity() { return quantity; }
+    public BigDecimal getSubtotal() { return subtotal; }
+}
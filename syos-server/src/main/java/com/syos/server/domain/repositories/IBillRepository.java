@@ -1,9 +1,14 @@
 package com.syos.server.domain.repositories;
 
 import com.syos.server.domain.entities.Bill;
+import com.syos.server.domain.entities.HourlySales;
+import com.syos.server.domain.entities.ItemSales;
+import com.syos.server.domain.entities.SalesLine;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface IBillRepository {
     void save(Bill bill);
@@ -11,4 +16,49 @@ public interface IBillRepository {
     List<Bill> findByCustomerId(String customerId);
     List<Bill> findByDateRange(LocalDateTime start, LocalDateTime end);
     List<Bill> findAll();
-}
\ No newline at end of file
+
+    /**
+     * Keyset page, newest first: up to limit bills older than beforeBillId
+     * (null for the first page), optionally for one customer and within
+     * [start, end) when those are not null
+     */
+    List<Bill> findPage(String beforeBillId, int limit, String customerId,
+                        LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Streams the bills in [start, end) oldest first, reading one page at a
+     * time so a long range is never held in memory
+     */
+    void forEachBill(LocalDateTime start, LocalDateTime end, Consumer<Bill> consumer);
+
+    /**
+     * Bill totals grouped by hour, payment method and cashier
+     */
+    List<HourlySales> summarizeByHour();
+
+    /**
+     * Units and revenue per item sold in [start, end), best sellers first
+     */
+    List<ItemSales> findItemSales(LocalDateTime start, LocalDateTime end, int limit);
+
+    /**
+     * Streams every bill line sold at or after the given time, without
+     * holding them all in memory
+     */
+    void forEachSalesLine(LocalDateTime since, Consumer<SalesLine> consumer);
+
+    /**
+     * Saves the bill, completing the future once it is durable.
+     * Implementations may batch bills from several callers into one commit.
+     */
+    default CompletableFuture<Void> saveAsync(Bill bill) {
+        return saveAsync(bill, () -> {});
+    }
+
+    /**
+     * Saves the bill and runs other repository work (e.g. the stock update)
+     * in the same transaction: both are committed or neither is. If the
+     * work throws, the future fails with that exception.
+     */
+    CompletableFuture<Void> saveAsync(Bill bill, Runnable inSameTransaction);
+}
@@ -1,15 +1,73 @@
 package com.syos.server.domain.repositories;
 
 import com.syos.server.domain.entities.Item;
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface IItemRepository {
     Optional<Item> findByCode(String itemCode);
+    List<Item> findByCodes(Collection<String> itemCodes);
     List<Item> findAll();
+
+    /**
+     * Keyset page in item code order: up to limit items with a code after
+     * afterItemCode (null for the first page), optionally in one category
+     */
+    List<Item> findPage(String afterItemCode, int limit, String categoryCode);
     List<Item> searchByName(String name);
+
+    /**
+     * Items whose code, name or description match every term of the query,
+     * best match first
+     */
+    List<Item> search(String query, int limit);
+
+    /**
+     * Items whose code, name or a word of the name starts with the prefix
+     */
+    List<Item> findByPrefix(String prefix, int limit);
+
     List<Item> findLowStockItems();
+
+    /**
+     * Sum of price x current stock over the whole catalog
+     */
+    BigDecimal getInventoryValue();
     void save(Item item);
     void update(Item item);
     void delete(String itemCode);
-}
\ No newline at end of file
+
+    /**
+     * Appends stock movements (item code -> signed quantity) to the change
+     * log. items.current_stock catches up when the log is reconciled.
+     */
+    void recordStockMovements(String reference, Map<String, Integer> deltas);
+
+    /**
+     * Folds logged stock movements into items.current_stock and removes them
+     * @return number of movements folded
+     */
+    int reconcileStockMovements();
+
+    /**
+     * Atomically adds to an item's stock
+     * @return false if the item does not exist
+     */
+    boolean incrementStock(String itemCode, int quantity);
+
+    /**
+     * Version of the catalog, raised by every committed item or stock change
+     * @return -1 if this repository does not track changes
+     */
+    long getCatalogVersion();
+
+    /**
+     * Codes of items changed or deleted after the given catalog version
+     * @return null if changes since that version are not known and the
+     *         caller has to reload the whole catalog
+     */
+    List<String> findChangedSince(long version);
+}
@@ -0,0 +1,339 @@
+package com.syos.server.infrastructure.database;
+
+import com.syos.server.concurrency.LatencyHistogram;
+import com.syos.server.config.ServerConfig;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded JDBC connection pool.
+ *
+ * Borrowers hold one permit of a fair semaphore for as long as they hold a
+ * connection, so at most maxSize connections are ever handed out and waiters
+ * are served in arrival order. Idle connections sit in a LIFO deque so the
+ * most recently used (warmest) connection is reused first. A background
+ * housekeeper evicts idle connections, keeps minIdle warm and reports leaks.
+ */
+public class ConnectionPool {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final long HOUSEKEEPING_INTERVAL_MS = 5_000;
+
+    private final String url;
+    private final String user;
+    private final String password;
+
+    private final int maxSize;
+    private final int minIdle;
+    private final long maxWaitMs;
+    private final long idleTimeoutMs;
+    private final long validationIntervalMs;
+    private final long leakDetectionMs;
+    private final boolean leakTraces;
+
+    private final Semaphore permits;
+    private final BlockingDeque<PooledEntry> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledEntry> borrowed = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger totalConnections = new AtomicInteger(0);
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    // Metrics
+    private final LatencyHistogram waitTimes = new LatencyHistogram();
+    private final AtomicLong borrowCount = new AtomicLong(0);
+    private final AtomicLong createdCount = new AtomicLong(0);
+    private final AtomicLong closedCount = new AtomicLong(0);
+    private final AtomicLong validationFailures = new AtomicLong(0);
+    private final AtomicLong timeoutCount = new AtomicLong(0);
+    private final AtomicLong leakCount = new AtomicLong(0);
+
+    public ConnectionPool(String url, String user, String password) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+
+        this.maxSize = Math.max(1, ServerConfig.getInt("syos.db.pool.maxSize", 20));
+        this.minIdle = Math.min(maxSize, Math.max(0, ServerConfig.getInt("syos.db.pool.minIdle", 4)));
+        this.maxWaitMs = ServerConfig.getLong("syos.db.pool.maxWaitMs", 5_000);
+        this.idleTimeoutMs = ServerConfig.getLong("syos.db.pool.idleTimeoutMs", 300_000);
+        this.validationIntervalMs = ServerConfig.getLong("syos.db.pool.validationIntervalMs", 500);
+        this.leakDetectionMs = ServerConfig.getLong("syos.db.pool.leakDetectionMs", 30_000);
+        this.leakTraces = leakDetectionMs > 0
+            && ServerConfig.getBoolean("syos.db.pool.leakTraces", false);
+
+        this.permits = new Semaphore(maxSize, true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        this.housekeeper.scheduleWithFixedDelay(this::housekeep,
+            0, HOUSEKEEPING_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection. Closing the returned connection hands it back
+     * to the pool instead of closing the physical connection.
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS)) {
+                timeoutCount.incrementAndGet();
+                throw new SQLException("Timed out after " + maxWaitMs +
+                    " ms waiting for a database connection (pool size " + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            PooledEntry entry = takeUsableIdle();
+            if (entry == null) {
+                entry = openEntry();
+            }
+            entry.borrowedAt = System.currentTimeMillis();
+            // Capturing the stack costs more than the borrow itself, so only when debugging a leak
+            entry.borrowSite = leakTraces ? new Exception("Connection borrowed here") : null;
+            entry.leakReported = false;
+            borrowed.add(entry);
+
+            borrowCount.incrementAndGet();
+            waitTimes.recordNanos(System.nanoTime() - start);
+            return entry.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledEntry takeUsableIdle() {
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            if (isUsable(entry)) {
+                return entry;
+            }
+            validationFailures.incrementAndGet();
+            destroy(entry);
+        }
+        return null;
+    }
+
+    private boolean isUsable(PooledEntry entry) {
+        try {
+            if (entry.physical.isClosed()) {
+                return false;
+            }
+            // Skip the round trip for connections that were in use moments ago
+            if (System.currentTimeMillis() - entry.lastUsed < validationIntervalMs) {
+                return true;
+            }
+            return entry.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledEntry openEntry() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, user, password);
+        totalConnections.incrementAndGet();
+        createdCount.incrementAndGet();
+        return new PooledEntry(physical);
+    }
+
+    private void release(PooledEntry entry) {
+        if (!borrowed.remove(entry)) {
+            return;
+        }
+        try {
+            Connection physical = entry.physical;
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            physical.clearWarnings();
+            entry.lastUsed = System.currentTimeMillis();
+            entry.borrowSite = null;
+
+            if (closed) {
+                destroy(entry);
+            } else {
+                idle.offerFirst(entry);
+            }
+        } catch (SQLException e) {
+            // Broken connection: drop it rather than hand it to the next borrower
+            destroy(entry);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void destroy(PooledEntry entry) {
+        totalConnections.decrementAndGet();
+        closedCount.incrementAndGet();
+        try {
+            entry.physical.close();
+        } catch (SQLException ignored) {
+            // Already broken, nothing more to do
+        }
+    }
+
+    void housekeep() {
+        try {
+            evictIdle();
+            fillToMinIdle();
+            detectLeaks();
+        } catch (RuntimeException e) {
+            System.err.println("⚠ Connection pool housekeeping failed: " + e.getMessage());
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        for (PooledEntry entry : idle) {
+            if (totalConnections.get() <= minIdle) {
+                return;
+            }
+            if (now - entry.lastUsed > idleTimeoutMs && idle.remove(entry)) {
+                destroy(entry);
+            }
+        }
+    }
+
+    private void fillToMinIdle() {
+        // Holding a permit while opening keeps the maxSize bound exact
+        while (!closed && totalConnections.get() < minIdle && permits.tryAcquire()) {
+            try {
+                idle.offerLast(openEntry());
+            } catch (SQLException e) {
+                System.err.println("⚠ Connection pool could not open connection: " + e.getMessage());
+                return;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    private void detectLeaks() {
+        if (leakDetectionMs <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (PooledEntry entry : borrowed) {
+            long heldFor = now - entry.borrowedAt;
+            if (heldFor > leakDetectionMs && !entry.leakReported) {
+                entry.leakReported = true;
+                leakCount.incrementAndGet();
+                System.err.println("⚠ Possible connection leak: connection held for " + heldFor + " ms");
+                Exception site = entry.borrowSite;
+                if (site != null) {
+                    site.printStackTrace();
+                }
+            }
+        }
+    }
+
+    public ConnectionPoolStats getStats() {
+        return new ConnectionPoolStats(
+            maxSize,
+            totalConnections.get(),
+            borrowed.size(),
+            idle.size(),
+            permits.getQueueLength(),
+            borrowCount.get(),
+            createdCount.get(),
+            closedCount.get(),
+            validationFailures.get(),
+            timeoutCount.get(),
+            leakCount.get(),
+            waitTimes.snapshot()
+        );
+    }
+
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            destroy(entry);
+        }
+    }
+
+    /**
+     * A physical connection plus its bookkeeping
+     */
+    private class PooledEntry {
+        private final Connection physical;
+        private volatile long lastUsed = System.currentTimeMillis();
+        private volatile long borrowedAt;
+        private volatile Exception borrowSite;
+        private volatile boolean leakReported;
+
+        PooledEntry(Connection physical) {
+            this.physical = physical;
+        }
+
+        Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                new Handle(this));
+        }
+    }
+
+    /**
+     * Per-borrow proxy: close() returns the connection, any later use fails
+     */
+    private class Handle implements InvocationHandler {
+        private final PooledEntry entry;
+        private volatile boolean returned;
+
+        Handle(PooledEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || entry.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + entry.physical + "]";
+                default:
+                    if (returned) {
+                        throw new SQLException("Connection has already been returned to the pool");
+                    }
+                    try {
+                        return method.invoke(entry.physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.syos.server.infrastructure.database;
+
+import com.syos.server.concurrency.LatencyHistogram;
+
+/**
+ * Point-in-time statistics for the connection pool
+ */
+public class ConnectionPoolStats {
+    private final int maxSize;
+    private final int totalConnections;
+    private final int activeConnections;
+    private final int idleConnections;
+    private final int waitingThreads;
+    private final long totalBorrows;
+    private final long connectionsCreated;
+    private final long connectionsClosed;
+    private final long validationFailures;
+    private final long borrowTimeouts;
+    private final long leaksDetected;
+    private final LatencyHistogram.Snapshot waitTime;
+
+    public ConnectionPoolStats(int maxSize, int totalConnections, int activeConnections,
+                               int idleConnections, int waitingThreads, long totalBorrows,
+                               long connectionsCreated, long connectionsClosed,
+                               long validationFailures, long borrowTimeouts,
+                               long leaksDetected, LatencyHistogram.Snapshot waitTime) {
+        this.maxSize = maxSize;
+        this.totalConnections = totalConnections;
+        this.activeConnections = activeConnections;
+        this.idleConnections = idleConnections;
+        this.waitingThreads = waitingThreads;
+        this.totalBorrows = totalBorrows;
+        this.connectionsCreated = connectionsCreated;
+        this.connectionsClosed = connectionsClosed;
+        this.validationFailures = validationFailures;
+        this.borrowTimeouts = borrowTimeouts;
+        this.leaksDetected = leaksDetected;
+        this.waitTime = waitTime;
+    }
+
+    public int getMaxSize() { return maxSize; }
+    public int getTotalConnections() { return totalConnections; }
+    public int getActiveConnections() { return activeConnections; }
+    public int getIdleConnections() { return idleConnections; }
+    public int getWaitingThreads() { return waitingThreads; }
+    public long getTotalBorrows() { return totalBorrows; }
+    public long getConnectionsCreated() { return connectionsCreated; }
+    public long getConnectionsClosed() { return connectionsClosed; }
+    public long getValidationFailures() { return validationFailures; }
+    public long getBorrowTimeouts() { return borrowTimeouts; }
+    public long getLeaksDetected() { return leaksDetected; }
+    public LatencyHistogram.Snapshot getWaitTime() { return waitTime; }
+}
@@ -1,15 +1,39 @@
 package com.syos.server.infrastructure.database;
 
+import com.syos.server.config.ServerConfig;
+import com.syos.server.infrastructure.transaction.UnitOfWork;
+
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
+/**
+ * Entry point for database access.
+ * Connections come from a shared pool; closing one returns it to the pool.
+ * Inside a UnitOfWork the caller gets that unit's connection instead.
+ */
 public class DatabaseConnection {
     private static final String DB_URL = "jdbc:h2:tcp://localhost:9092/~/syos;IFEXISTS=FALSE";
     private static final String DB_USER = "sa";
     private static final String DB_PASSWORD = "";
 
+    private static final ConnectionPool pool = new ConnectionPool(
+        ServerConfig.getString("syos.db.url", DB_URL),
+        ServerConfig.getString("syos.db.user", DB_USER),
+        ServerConfig.getString("syos.db.password", DB_PASSWORD));
+
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+        UnitOfWork uow = UnitOfWork.current();
+        if (uow != null) {
+            return uow.connection();
+        }
+        return pool.getConnection();
+    }
+
+    public static ConnectionPoolStats getPoolStats() {
+        return pool.getStats();
+    }
+
+    public static void shutdown() {
+        pool.close();
     }
-}
\ No newline at end of file
+}
@@ -2,87 +2,390 @@ package com.syos.server.infrastructure.repositories;
 
 import com.syos.server.domain.entities.Bill;
 import com.syos.server.domain.entities.BillItem;
+import com.syos.server.domain.entities.HourlySales;
+import com.syos.server.domain.entities.ItemSales;
+import com.syos.server.domain.entities.SalesLine;
 import com.syos.server.domain.repositories.IBillRepository;
 import com.syos.server.infrastructure.database.DatabaseConnection;
+import com.syos.server.infrastructure.transaction.UnitOfWork;
 
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public class BillRepositoryImpl implements IBillRepository {
-    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Rows per multi-row INSERT, keeps statements well under driver parameter limits
+    private static final int ROWS_PER_STATEMENT = 100;
+
+    private static final String INSERT_BILLS =
+        "INSERT INTO bills (bill_id, customer_id, cashier_id, payment_method, " +
+        "subtotal, tax, total, timestamp) VALUES ";
+    private static final String INSERT_BILL_ITEMS =
+        "INSERT INTO bill_items (bill_id, item_code, item_name, quantity, " +
+        "unit_price, subtotal) VALUES ";
+
+    private static final String BILL_COLUMNS =
+        "bill_id, customer_id, cashier_id, payment_method, subtotal, tax, total, timestamp";
+
+    // Bills read per page when streaming a date range
+    private static final int BILLS_PER_PAGE = 500;
 
     @Override
     public void save(Bill bill) {
-        lock.writeLock().lock();
-        try (Connection conn = DatabaseConnection.getConnection()) {
-            conn.setAutoCommit(false);
-            
+        save(bill, () -> {});
+    }
+
+    @Override
+    public CompletableFuture<Void> saveAsync(Bill bill, Runnable inSameTransaction) {
+        try {
+            save(bill, inSameTransaction);
+            return CompletableFuture.completedFuture(null);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Runs the given work and writes the bill in one unit of work
+     */
+    void save(Bill bill, Runnable inSameTransaction) {
+        try (UnitOfWork uow = UnitOfWork.begin()) {
+            inSameTransaction.run();
+            insertBatch(uow.connection(), Collections.singletonList(bill));
+            uow.commit();
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Database error", e);
+        }
+    }
+
+    /**
+     * Writes bills and their lines with multi-row INSERTs on the given
+     * connection. The caller owns the transaction.
+     */
+    void insertBatch(Connection conn, List<Bill> bills) throws SQLException {
+        for (int from = 0; from < bills.size(); from += ROWS_PER_STATEMENT) {
+            List<Bill> chunk = bills.subList(from, Math.min(bills.size(), from + ROWS_PER_STATEMENT));
+
             try (PreparedStatement stmt = conn.prepareStatement(
-                "INSERT INTO bills (bill_id, customer_id, cashier_id, payment_method, " +
-                "subtotal, tax, total, timestamp) VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
-                
-                stmt.setString(1, bill.getBillId());
-                stmt.setString(2, bill.getCustomerId());
-                stmt.setString(3, bill.getCashierId());
-                stmt.setString(4, bill.getPaymentMethod());
-                stmt.setBigDecimal(5, bill.getSubtotal());
-                stmt.setBigDecimal(6, bill.getTax());
-                stmt.setBigDecimal(7, bill.getTotal());
-                stmt.setTimestamp(8, Timestamp.valueOf(bill.getTimestamp()));
+                    multiRowSql(INSERT_BILLS, 8, chunk.size()))) {
+                int p = 1;
+                for (Bill bill : chunk) {
+                    stmt.setString(p++, bill.getBillId());
+                    stmt.setString(p++, bill.getCustomerId());
+                    stmt.setString(p++, bill.getCashierId());
+                    stmt.setString(p++, bill.getPaymentMethod());
+                    stmt.setBigDecimal(p++, bill.getSubtotal());
+                    stmt.setBigDecimal(p++, bill.getTax());
+                    stmt.setBigDecimal(p++, bill.getTotal());
+                    stmt.setTimestamp(p++, Timestamp.valueOf(bill.getTimestamp()));
+                }
                 stmt.executeUpdate();
             }
+        }
+
+        List<Map.Entry<String, BillItem>> lines = new ArrayList<>();
+        for (Bill bill : bills) {
+            for (BillItem item : bill.getItems()) {
+                lines.add(Map.entry(bill.getBillId(), item));
+            }
+        }
+
+        for (int from = 0; from < lines.size(); from += ROWS_PER_STATEMENT) {
+            List<Map.Entry<String, BillItem>> chunk = lines.subList(from, Math.min(lines.size(), from + ROWS_PER_STATEMENT));
 
             try (PreparedStatement stmt = conn.prepareStatement(
-                "INSERT INTO bill_items (bill_id, item_code, item_name, quantity, " +
-                "unit_price, subtotal) VALUES (?, ?, ?, ?, ?, ?)")) {
-                
-                for (BillItem item : bill.getItems()) {
-                    stmt.setString(1, bill.getBillId());
-                    stmt.setString(2, item.getItemCode());
-                    stmt.setString(3, item.getItemName());
-                    stmt.setInt(4, item.getQuantity());
-                    stmt.setBigDecimal(5, item.getUnitPrice());
-                    stmt.setBigDecimal(6, item.getSubtotal());
-                    stmt.addBatch();
+                    multiRowSql(INSERT_BILL_ITEMS, 6, chunk.size()))) {
+                int p = 1;
+                for (Map.Entry<String, BillItem> line : chunk) {
+                    BillItem item = line.getValue();
+                    stmt.setString(p++, line.getKey());
+                    stmt.setString(p++, item.getItemCode());
+                    stmt.setString(p++, item.getItemName());
+                    stmt.setInt(p++, item.getQuantity());
+                    stmt.setBigDecimal(p++, item.getUnitPrice());
+                    stmt.setBigDecimal(p++, item.getSubtotal());
                 }
-                stmt.executeBatch();
+                stmt.executeUpdate();
             }
-
-            conn.commit();
-            
-        } catch (SQLException e) {
-            throw new RuntimeException("Database error", e);
-        } finally {
-            lock.writeLock().unlock();
         }
     }
 
+    private static String multiRowSql(String insertHead, int columns, int rows) {
+        String row = "(" + String.join(", ", Collections.nCopies(columns, "?")) + ")";
+        return insertHead + String.join(", ", Collections.nCopies(rows, row));
+    }
+
     @Override
     public Optional<Bill> findById(String billId) {
-        lock.readLock().lock();
-        try {
-            // Implementation similar to save but with SELECT
-            return Optional.empty(); // Simplified for brevity
-        } finally {
-            lock.readLock().unlock();
-        }
+        return findBills("SELECT " + BILL_COLUMNS + " FROM bills WHERE bill_id = ?", billId)
+            .stream().findFirst();
     }
 
     @Override
     public List<Bill> findByCustomerId(String customerId) {
-        return new ArrayList<>(); // Simplified
+        return findBills("SELECT " + BILL_COLUMNS + " FROM bills WHERE customer_id = ? " +
+                         "ORDER BY timestamp DESC, bill_id DESC", customerId);
     }
 
     @Override
     public List<Bill> findByDateRange(LocalDateTime start, LocalDateTime end) {
-        return new ArrayList<>(); // Simplified
+        List<Bill> bills = new ArrayList<>();
+        forEachBill(start, end, bills::add);
+        return bills;
     }
 
     @Override
     public List<Bill> findAll() {
-        return new ArrayList<>(); // Simplified
+        return findBills("SELECT " + BILL_COLUMNS + " FROM bills ORDER BY timestamp, bill_id");
+    }
+
+    @Override
+    public List<Bill> findPage(String beforeBillId, int limit, String customerId,
+                               LocalDateTime start, LocalDateTime end) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            LocalDateTime beforeTime = null;
+            if (beforeBillId != null) {
+                beforeTime = findTimestamp(conn, beforeBillId);
+                if (beforeTime == null) {
+                    return new ArrayList<>();
+                }
+            }
+            return findPage(conn, start, end, customerId, beforeTime, beforeBillId, true, limit);
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Database error", e);
+        }
+    }
+
+    @Override
+    public void forEachBill(LocalDateTime start, LocalDateTime end, Consumer<Bill> consumer) {
+        LocalDateTime afterTime = null;
+        String afterBillId = null;
+
+        while (true) {
+            List<Bill> page;
+            // The connection goes back to the pool before the consumer sees the page
+            try (Connection conn = DatabaseConnection.getConnection()) {
+                page = findPage(conn, start, end, null, afterTime, afterBillId, false, BILLS_PER_PAGE);
+            } catch (SQLException e) {
+                throw new RuntimeException("Database error", e);
+            }
+
+            page.forEach(consumer);
+            if (page.size() < BILLS_PER_PAGE) {
+                return;
+            }
+            Bill last = page.get(page.size() - 1);
+            afterTime = last.getTimestamp();
+            afterBillId = last.getBillId();
+        }
+    }
+
+    /**
+     * Keyset page ordered by (timestamp, bill_id), starting after the cursor
+     * bill when one is given
+     */
+    private List<Bill> findPage(Connection conn, LocalDateTime start, LocalDateTime end, String customerId,
+                                LocalDateTime cursorTime, String cursorBillId,
+                                boolean newestFirst, int limit) throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT " + BILL_COLUMNS + " FROM bills WHERE 1 = 1");
+        List<Object> params = new ArrayList<>();
+        if (start != null) {
+            sql.append(" AND timestamp >= ?");
+            params.add(Timestamp.valueOf(start));
+        }
+        if (end != null) {
+            sql.append(" AND timestamp < ?");
+            params.add(Timestamp.valueOf(end));
+        }
+        if (customerId != null) {
+            sql.append(" AND customer_id = ?");
+            params.add(customerId);
+        }
+        if (cursorTime != null) {
+            // The first comparison bounds the timestamp index range, the second skips ties
+            String op = newestFirst ? "<" : ">";
+            sql.append(" AND timestamp ").append(op).append("= ?")
+               .append(" AND (timestamp ").append(op).append(" ? OR bill_id ").append(op).append(" ?)");
+            params.add(Timestamp.valueOf(cursorTime));
+            params.add(Timestamp.valueOf(cursorTime));
+            params.add(cursorBillId);
+        }
+        String direction = newestFirst ? " DESC" : "";
+        sql.append(" ORDER BY timestamp").append(direction)
+           .append(", bill_id").append(direction).append(" LIMIT ?");
+        params.add(limit);
+
+        return findBills(conn, sql.toString(), params.toArray());
+    }
+
+    private LocalDateTime findTimestamp(Connection conn, String billId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT timestamp FROM bills WHERE bill_id = ?")) {
+            stmt.setString(1, billId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getTimestamp(1).toLocalDateTime() : null;
+            }
+        }
+    }
+
+    private List<Bill> findBills(String sql, Object... params) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return findBills(conn, sql, params);
+        } catch (SQLException e) {
+            throw new RuntimeException("Database error", e);
+        }
+    }
+
+    /**
+     * Runs a query over bills and attaches their lines, fetching the lines of
+     * up to ROWS_PER_STATEMENT bills per query instead of one query per bill
+     */
+    private List<Bill> findBills(Connection conn, String sql, Object... params) throws SQLException {
+        List<Bill> bills = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(i + 1, params[i]);
+            }
+            stmt.setFetchSize(BILLS_PER_PAGE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    bills.add(mapResultSetToBill(rs));
+                }
+            }
+        }
+
+        Map<String, List<BillItem>> itemsByBill = new HashMap<>();
+        for (int from = 0; from < bills.size(); from += ROWS_PER_STATEMENT) {
+            List<Bill> chunk = bills.subList(from, Math.min(bills.size(), from + ROWS_PER_STATEMENT));
+
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT bill_id, item_code, item_name, quantity, unit_price FROM bill_items " +
+                    "WHERE bill_id IN (" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ") " +
+                    "ORDER BY id")) {
+                int p = 1;
+                for (Bill bill : chunk) {
+                    stmt.setString(p++, bill.getBillId());
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        itemsByBill.computeIfAbsent(rs.getString("bill_id"), id -> new ArrayList<>())
+                            .add(new BillItem(
+                                rs.getString("item_code"),
+                                rs.getString("item_name"),
+                                rs.getInt("quantity"),
+                                rs.getBigDecimal("unit_price")));
+                    }
+                }
+            }
+        }
+
+        List<Bill> result = new ArrayList<>(bills.size());
+        for (Bill bill : bills) {
+            result.add(new Bill(bill.getBillId(), bill.getCustomerId(), bill.getCashierId(),
+                bill.getPaymentMethod(), itemsByBill.getOrDefault(bill.getBillId(), Collections.emptyList()),
+                bill.getSubtotal(), bill.getTax(), bill.getTotal(), bill.getTimestamp()));
+        }
+        return result;
+    }
+
+    // Lines are attached afterwards, once for the whole result
+    private Bill mapResultSetToBill(ResultSet rs) throws SQLException {
+        return new Bill(
+            rs.getString("bill_id"),
+            rs.getString("customer_id"),
+            rs.getString("cashier_id"),
+            rs.getString("payment_method"),
+            Collections.emptyList(),
+            rs.getBigDecimal("subtotal"),
+            rs.getBigDecimal("tax"),
+            rs.getBigDecimal("total"),
+            rs.getTimestamp("timestamp").toLocalDateTime());
+    }
+
+    @Override
+    public List<HourlySales> summarizeByHour() {
+        String sql = "SELECT DATE_TRUNC('HOUR', timestamp) AS sales_hour, payment_method, cashier_id, " +
+                    "COUNT(*) AS transactions, SUM(total) AS total, SUM(tax) AS tax FROM bills " +
+                    "GROUP BY DATE_TRUNC('HOUR', timestamp), payment_method, cashier_id";
+        List<HourlySales> sales = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                sales.add(new HourlySales(
+                    rs.getTimestamp("sales_hour").toLocalDateTime(),
+                    rs.getString("payment_method"),
+                    rs.getString("cashier_id"),
+                    rs.getLong("transactions"),
+                    rs.getBigDecimal("total"),
+                    rs.getBigDecimal("tax")));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Database error", e);
+        }
+        return sales;
+    }
+
+    @Override
+    public void forEachSalesLine(LocalDateTime since, Consumer<SalesLine> consumer) {
+        String sql = "SELECT b.timestamp, b.cashier_id, bi.item_code, bi.quantity, bi.subtotal " +
+                    "FROM bill_items bi JOIN bills b ON b.bill_id = bi.bill_id " +
+                    "WHERE b.timestamp >= ? ORDER BY b.timestamp";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setTimestamp(1, Timestamp.valueOf(since));
+            stmt.setFetchSize(1000);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(new SalesLine(
+                        rs.getTimestamp("timestamp").toLocalDateTime(),
+                        rs.getString("cashier_id"),
+                        rs.getString("item_code"),
+                        rs.getInt("quantity"),
+                        rs.getBigDecimal("subtotal")));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Database error", e);
+        }
+    }
+
+    @Override
+    public List<ItemSales> findItemSales(LocalDateTime start, LocalDateTime end, int limit) {
+        String sql = "SELECT bi.item_code, MAX(bi.item_name) AS item_name, " +
+                    "SUM(bi.quantity) AS quantity, SUM(bi.subtotal) AS revenue " +
+                    "FROM bill_items bi JOIN bills b ON b.bill_id = bi.bill_id " +
+                    "WHERE b.timestamp >= ? AND b.timestamp < ? " +
+                    "GROUP BY bi.item_code ORDER BY quantity DESC, bi.item_code LIMIT ?";
+        List<ItemSales> sales = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setTimestamp(1, Timestamp.valueOf(start));
+            stmt.setTimestamp(2, Timestamp.valueOf(end));
+            stmt.setInt(3, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    sales.add(new ItemSales(
+                        rs.getString("item_code"),
+                        rs.getString("item_name"),
+                        rs.getLong("quantity"),
+                        rs.getBigDecimal("revenue")));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Database error", e);
+        }
+        return sales;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,170 @@
+package com.syos.server.infrastructure.repositories;
+
+import com.syos.server.concurrency.MetricsSource;
+import com.syos.server.config.ServerConfig;
+import com.syos.server.domain.entities.Customer;
+import com.syos.server.domain.repositories.ICustomerRepository;
+import com.syos.server.infrastructure.transaction.UnitOfWork;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read-through cache for customer lookups.
+ *
+ * Bounded LRU (least recently used entry is evicted once maxSize is
+ * reached) with a TTL per entry. Unknown IDs are cached too, for a shorter
+ * time, so repeated bad IDs do not each cost a query. save/update/delete
+ * drop the entry once the write is committed. The database is only
+ * queried outside the cache lock, and a load that raced with a write is
+ * not cached.
+ */
+public class CachingCustomerRepository implements ICustomerRepository, MetricsSource {
+
+    private final ICustomerRepository delegate;
+    private final int maxSize;
+    private final long ttlMs;
+    private final long negativeTtlMs;
+    private final LinkedHashMap<String, Entry> entries;
+
+    // Bumped on every write; loads started before a write are not cached
+    private final AtomicLong writes = new AtomicLong();
+
+    // Metrics
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CachingCustomerRepository(ICustomerRepository delegate) {
+        this.delegate = delegate;
+        this.maxSize = Math.max(1, ServerConfig.getInt("syos.customers.cache.maxSize", 10_000));
+        this.ttlMs = ServerConfig.getLong("syos.customers.cache.ttlMs", 300_000);
+        this.negativeTtlMs = ServerConfig.getLong("syos.customers.cache.negativeTtlMs", 30_000);
+
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public Optional<Customer> findById(String customerId) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry entry = entries.get(customerId);
+            if (entry != null) {
+                if (entry.expiresAt > now) {
+                    if (entry.customer == null) {
+                        negativeHits.increment();
+                        return Optional.empty();
+                    }
+                    hits.increment();
+                    return Optional.of(copy(entry.customer));
+                }
+                entries.remove(customerId);
+            }
+        }
+
+        misses.increment();
+        long writesBefore = writes.get();
+        Optional<Customer> loaded = delegate.findById(customerId);
+
+        Entry entry = new Entry(
+            loaded.map(CachingCustomerRepository::copy).orElse(null),
+            now + (loaded.isPresent() ? ttlMs : negativeTtlMs));
+        synchronized (entries) {
+            if (writes.get() == writesBefore) {
+                entries.put(customerId, entry);
+            }
+        }
+        return loaded;
+    }
+
+    @Override
+    public List<Customer> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public void save(Customer customer) {
+        delegate.save(customer);
+        invalidate(customer.getCustomerId());
+    }
+
+    @Override
+    public void update(Customer customer) {
+        delegate.update(customer);
+        invalidate(customer.getCustomerId());
+    }
+
+    @Override
+    public void delete(String customerId) {
+        delegate.delete(customerId);
+        invalidate(customerId);
+    }
+
+    /**
+     * Drops a customer now and again once the write commits, so a lookup
+     * in between cannot cache the old row
+     */
+    private void invalidate(String customerId) {
+        Runnable drop = () -> {
+            synchronized (entries) {
+                writes.incrementAndGet();
+                entries.remove(customerId);
+            }
+        };
+        drop.run();
+        UnitOfWork.afterCommit(drop);
+    }
+
+    private static Customer copy(Customer customer) {
+        return new Customer(customer.getCustomerId(), customer.getName(),
+            customer.getEmail(), customer.getPhone(), customer.getAddress());
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "customerCache";
+    }
+
+    @Override
+    public Object getMetricsSnapshot() {
+        long hitCount = hits.sum() + negativeHits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", size);
+        stats.put("maxSize", maxSize);
+        stats.put("hits", hits.sum());
+        stats.put("negativeHits", negativeHits.sum());
+        stats.put("misses", missCount);
+        stats.put("hitRatio", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("evictions", evictions.sum());
+        return stats;
+    }
+
+    private static class Entry {
+        private final Customer customer;   // null: customer does not exist
+        private final long expiresAt;
+
+        Entry(Customer customer, long expiresAt) {
+            this.customer = customer;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,480 @@
+package com.syos.server.infrastructure.repositories;
+
+import com.syos.server.concurrency.MetricsSource;
+import com.syos.server.domain.entities.Item;
+import com.syos.server.domain.repositories.IItemRepository;
+import com.syos.server.infrastructure.search.ItemPrefixIndex;
+import com.syos.server.infrastructure.search.ItemSearchIndex;
+import com.syos.server.infrastructure.search.LowStockIndex;
+import com.syos.server.infrastructure.transaction.UnitOfWork;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the whole item catalog in memory in front of another repository.
+ *
+ * The catalog is loaded once at startup; reads are then served from a
+ * concurrent map. findAll(), pages and name searches walk a sorted array of
+ * item codes that is rebuilt only when an item is added, removed or
+ * renamed, reading each item live from the map, so stock movements never
+ * cause a re-sort. Writes go to the database first and are applied to the
+ * cache once committed (see UnitOfWork.afterCommit), so a rolled-back
+ * checkout never shows up here. Stock changes are applied as deltas,
+ * which commute, so concurrent checkouts cannot leave a stale value.
+ * Callers get copies and cannot change cached items. Searches are answered
+ * by an ItemSearchIndex kept in step with the cached items, typeahead by
+ * an ItemPrefixIndex rebuilt after names or codes change. A LowStockIndex
+ * follows every stock change, so findLowStockItems() costs O(result) and
+ * reorder-level crossings can be pushed to listeners. Every applied change
+ * is recorded in a CatalogChangeLog so clients can sync incrementally.
+ */
+public class CachingItemRepository implements IItemRepository, MetricsSource {
+
+    private final IItemRepository delegate;
+    private final Map<String, Item> items = new ConcurrentHashMap<>();
+    private final ItemSearchIndex searchIndex = new ItemSearchIndex();
+    private final LowStockIndex lowStockIndex = new LowStockIndex();
+    private final CatalogChangeLog changeLog = new CatalogChangeLog();
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong textVersion = new AtomicLong();
+    private volatile CodeOrder codeOrder;
+    private volatile PrefixSnapshot prefixIndex;
+    private volatile InventoryValue inventoryValue;
+    private volatile boolean loaded;
+
+    // Metrics
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder codeOrderRebuilds = new LongAdder();
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder autocompletes = new LongAdder();
+    private final LongAdder prefixRebuilds = new LongAdder();
+
+    public CachingItemRepository(IItemRepository delegate) {
+        this.delegate = delegate;
+        try {
+            loadAll();
+            System.out.println("✓ Item cache loaded (" + items.size() + " items)");
+        } catch (RuntimeException e) {
+            System.err.println("⚠ Item cache not loaded, will retry on first read: " + e.getMessage());
+        }
+    }
+
+    private void loadAll() {
+        for (Item item : delegate.findAll()) {
+            if (items.putIfAbsent(item.getItemCode(), item) == null) {
+                searchIndex.index(item);
+                lowStockIndex.track(item);
+            }
+        }
+        version.incrementAndGet();
+        textVersion.incrementAndGet();
+        loaded = true;
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    loadAll();
+                }
+            }
+        }
+    }
+
+    @Override
+    public Optional<Item> findByCode(String itemCode) {
+        ensureLoaded();
+        Item item = items.get(itemCode);
+        if (item != null) {
+            hits.increment();
+            return Optional.of(copy(item));
+        }
+
+        // Created outside this server since startup
+        misses.increment();
+        Optional<Item> loadedItem = delegate.findByCode(itemCode);
+        loadedItem.ifPresent(this::cacheIfAbsent);
+        return loadedItem;
+    }
+
+    @Override
+    public List<Item> findByCodes(Collection<String> itemCodes) {
+        ensureLoaded();
+        List<Item> result = new ArrayList<>(itemCodes.size());
+        List<String> missing = new ArrayList<>();
+        for (String itemCode : itemCodes) {
+            Item item = items.get(itemCode);
+            if (item != null) {
+                result.add(copy(item));
+            } else {
+                missing.add(itemCode);
+            }
+        }
+        hits.add(result.size());
+
+        if (!missing.isEmpty()) {
+            misses.add(missing.size());
+            for (Item item : delegate.findByCodes(missing)) {
+                cacheIfAbsent(item);
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Item> findAll() {
+        ensureLoaded();
+        hits.increment();
+        return copyAll(currentItems());
+    }
+
+    @Override
+    public List<Item> findPage(String afterItemCode, int limit, String categoryCode) {
+        ensureLoaded();
+        hits.increment();
+        String[] codes = currentCodeOrder();
+
+        // Binary search for the first code after the cursor
+        int low = 0;
+        int high = codes.length;
+        if (afterItemCode != null) {
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (codes[mid].compareTo(afterItemCode) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+        }
+
+        List<Item> page = new ArrayList<>(Math.min(limit, codes.length - low));
+        for (int i = low; i < codes.length && page.size() < limit; i++) {
+            Item item = items.get(codes[i]);
+            if (item != null && (categoryCode == null || categoryCode.equals(item.getCategoryCode()))) {
+                page.add(copy(item));
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public List<Item> searchByName(String name) {
+        ensureLoaded();
+        hits.increment();
+        // Case-insensitive, like LOWER(name) LIKE in the database
+        String needle = name.toLowerCase(Locale.ROOT);
+        List<Item> result = new ArrayList<>();
+        for (Item item : currentItems()) {
+            if (item.getName() != null && item.getName().toLowerCase(Locale.ROOT).contains(needle)) {
+                result.add(copy(item));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Item> search(String query, int limit) {
+        ensureLoaded();
+        searches.increment();
+        List<Item> result = new ArrayList<>();
+        for (String itemCode : searchIndex.search(query, limit)) {
+            Item item = items.get(itemCode);
+            if (item != null) {
+                result.add(copy(item));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Item> findByPrefix(String prefix, int limit) {
+        ensureLoaded();
+        autocompletes.increment();
+        List<Item> result = new ArrayList<>();
+        for (String itemCode : currentPrefixIndex().lookup(prefix, limit)) {
+            Item item = items.get(itemCode);
+            if (item != null) {
+                result.add(copy(item));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Item> findLowStockItems() {
+        ensureLoaded();
+        hits.increment();
+        List<Item> result = new ArrayList<>(lowStockIndex.size());
+        for (String itemCode : lowStockIndex.itemCodes()) {
+            Item item = items.get(itemCode);
+            if (item != null && item.isLowStock()) {
+                result.add(copy(item));
+            }
+        }
+        result.sort(Comparator.comparing(Item::getItemCode));
+        return result;
+    }
+
+    /**
+     * Summed over the cached items, then reused until the next write.
+     * The version is read first, as for the code order.
+     */
+    @Override
+    public BigDecimal getInventoryValue() {
+        ensureLoaded();
+        long current = version.get();
+        InventoryValue cached = inventoryValue;
+        if (cached != null && cached.version == current) {
+            return cached.value;
+        }
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (Item item : items.values()) {
+            total = total.add(item.getPrice().multiply(BigDecimal.valueOf(item.getCurrentStock())));
+        }
+        inventoryValue = new InventoryValue(current, total);
+        return total;
+    }
+
+    @Override
+    public long getCatalogVersion() {
+        return changeLog.getVersion();
+    }
+
+    @Override
+    public List<String> findChangedSince(long version) {
+        return changeLog.changedSince(version);
+    }
+
+    /**
+     * Called when an item falls to its reorder level or is restocked above it
+     */
+    public void addLowStockListener(LowStockIndex.Listener listener) {
+        lowStockIndex.addListener(listener);
+    }
+
+    @Override
+    public void save(Item item) {
+        delegate.save(item);
+        Item cached = copy(item);
+        UnitOfWork.afterCommit(() -> put(cached));
+    }
+
+    @Override
+    public void update(Item item) {
+        delegate.update(item);
+        Item cached = copy(item);
+        UnitOfWork.afterCommit(() -> put(cached));
+    }
+
+    @Override
+    public void delete(String itemCode) {
+        delegate.delete(itemCode);
+        UnitOfWork.afterCommit(() -> {
+            items.remove(itemCode);
+            searchIndex.remove(itemCode);
+            lowStockIndex.remove(itemCode);
+            version.incrementAndGet();
+            textVersion.incrementAndGet();
+            changeLog.record(itemCode);
+        });
+    }
+
+    @Override
+    public void recordStockMovements(String reference, Map<String, Integer> deltas) {
+        delegate.recordStockMovements(reference, deltas);
+        Map<String, Integer> applied = new HashMap<>(deltas);
+        UnitOfWork.afterCommit(() -> applied.forEach(this::adjustStock));
+    }
+
+    @Override
+    public int reconcileStockMovements() {
+        // Cached stock already includes logged movements
+        return delegate.reconcileStockMovements();
+    }
+
+    @Override
+    public boolean incrementStock(String itemCode, int quantity) {
+        boolean found = delegate.incrementStock(itemCode, quantity);
+        if (found) {
+            UnitOfWork.afterCommit(() -> adjustStock(itemCode, quantity));
+        }
+        return found;
+    }
+
+    private void put(Item item) {
+        boolean[] crossed = new boolean[1];
+        items.compute(item.getItemCode(), (code, previous) -> {
+            crossed[0] = lowStockIndex.track(item);
+            return item;
+        });
+        searchIndex.index(item);
+        version.incrementAndGet();
+        textVersion.incrementAndGet();
+        changeLog.record(item.getItemCode());
+        if (crossed[0]) {
+            lowStockIndex.notifyCrossed(item);
+        }
+    }
+
+    private void cacheIfAbsent(Item item) {
+        Item cached = copy(item);
+        if (items.putIfAbsent(item.getItemCode(), cached) == null) {
+            searchIndex.index(cached);
+            lowStockIndex.track(cached);
+            version.incrementAndGet();
+            textVersion.incrementAndGet();
+            changeLog.record(item.getItemCode());
+        }
+    }
+
+    private void adjustStock(String itemCode, int delta) {
+        boolean[] crossed = new boolean[1];
+        Item adjusted = items.computeIfPresent(itemCode, (code, item) -> {
+            Item updated = withStock(item, item.getCurrentStock() + delta);
+            crossed[0] = lowStockIndex.track(updated);
+            return updated;
+        });
+        if (adjusted == null) {
+            return; // not cached, nothing changed here
+        }
+        version.incrementAndGet();
+        changeLog.record(itemCode);
+        if (crossed[0]) {
+            lowStockIndex.notifyCrossed(copy(adjusted));
+        }
+    }
+
+    /**
+     * Item codes in order, rebuilt only if an item was added, removed or
+     * renamed since the last build. The version is read before copying, so
+     * a write racing with the rebuild just causes another rebuild on the
+     * next read. Codes removed meanwhile are skipped by the callers.
+     */
+    private String[] currentCodeOrder() {
+        long current = textVersion.get();
+        CodeOrder cached = codeOrder;
+        if (cached != null && cached.version == current) {
+            return cached.codes;
+        }
+
+        String[] rebuilt = items.keySet().toArray(new String[0]);
+        Arrays.sort(rebuilt);
+        codeOrder = new CodeOrder(current, rebuilt);
+        codeOrderRebuilds.increment();
+        return rebuilt;
+    }
+
+    /**
+     * Cached items in code order, with their current stock
+     */
+    private List<Item> currentItems() {
+        String[] codes = currentCodeOrder();
+        List<Item> result = new ArrayList<>(codes.length);
+        for (String itemCode : codes) {
+            Item item = items.get(itemCode);
+            if (item != null) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Prefix index, rebuilt from the cached items if a name or code changed since
+     */
+    private ItemPrefixIndex currentPrefixIndex() {
+        long current = textVersion.get();
+        PrefixSnapshot cached = prefixIndex;
+        if (cached != null && cached.version == current) {
+            return cached.index;
+        }
+
+        ItemPrefixIndex rebuilt = ItemPrefixIndex.build(currentItems());
+        prefixIndex = new PrefixSnapshot(current, rebuilt);
+        prefixRebuilds.increment();
+        return rebuilt;
+    }
+
+    private static List<Item> copyAll(List<Item> source) {
+        List<Item> result = new ArrayList<>(source.size());
+        for (Item item : source) {
+            result.add(copy(item));
+        }
+        return result;
+    }
+
+    private static Item copy(Item item) {
+        return withStock(item, item.getCurrentStock());
+    }
+
+    private static Item withStock(Item item, int stock) {
+        return new Item(item.getItemCode(), item.getName(), item.getDescription(),
+            item.getPrice(), item.getCategoryCode(), stock, item.getReorderLevel());
+    }
+
+    private static class CodeOrder {
+        private final long version;
+        private final String[] codes;
+
+        CodeOrder(long version, String[] codes) {
+            this.version = version;
+            this.codes = codes;
+        }
+    }
+
+    private static class PrefixSnapshot {
+        private final long version;
+        private final ItemPrefixIndex index;
+
+        PrefixSnapshot(long version, ItemPrefixIndex index) {
+            this.version = version;
+            this.index = index;
+        }
+    }
+
+    private static class InventoryValue {
+        private final long version;
+        private final BigDecimal value;
+
+        InventoryValue(long version, BigDecimal value) {
+            this.version = version;
+            this.value = value;
+        }
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "itemCache";
+    }
+
+    @Override
+    public Object getMetricsSnapshot() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("items", items.size());
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("codeOrderRebuilds", codeOrderRebuilds.sum());
+        stats.put("indexedItems", searchIndex.size());
+        stats.put("searches", searches.sum());
+        stats.put("autocompletes", autocompletes.sum());
+        stats.put("prefixIndexRebuilds", prefixRebuilds.sum());
+        stats.put("lowStockItems", lowStockIndex.size());
+        stats.put("lowStockCrossings", lowStockIndex.getCrossings());
+        stats.put("catalogVersion", changeLog.getVersion());
+        stats.put("changeLogEntries", changeLog.size());
+        return stats;
+    }
+}
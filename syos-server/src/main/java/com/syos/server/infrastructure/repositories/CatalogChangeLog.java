@@ -0,0 +1,62 @@
+package com.syos.server.infrastructure.repositories;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Catalog version and the item codes changed at each version.
+ *
+ * Only the latest version of each item code is kept, so the log never
+ * holds more entries than there are item codes. The high 32 bits of a
+ * version are an epoch picked at random when the server starts and the
+ * low bits count changes, so a version handed out by an earlier server
+ * run carries another epoch and the client is told to reload instead of
+ * missing changes, whatever the clock did in between.
+ */
+public class CatalogChangeLog {
+
+    private final long epoch = ThreadLocalRandom.current().nextLong(1, 1L << 31);
+    private final long baseVersion = epoch << 32;
+    private final ConcurrentSkipListMap<Long, String> changes = new ConcurrentSkipListMap<>();
+    private final Map<String, Long> latest = new ConcurrentHashMap<>();
+    private long nextVersion = baseVersion;
+    private volatile long version = baseVersion;
+
+    /**
+     * Records a change to the item, after it has been applied
+     */
+    public synchronized void record(String itemCode) {
+        long changed = ++nextVersion;
+        // Add before removing the older entry so readers never miss the code
+        changes.put(changed, itemCode);
+        Long previous = latest.put(itemCode, changed);
+        if (previous != null) {
+            changes.remove(previous);
+        }
+        version = changed;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Item codes changed after the given version, or null when that version
+     * was not handed out by this log. Codes changed while this runs may be
+     * included even if they are newer than getVersion() returned before.
+     */
+    public List<String> changedSince(long since) {
+        if (since >>> 32 != epoch || since > version) {
+            return null;
+        }
+        return new ArrayList<>(changes.tailMap(since, false).values());
+    }
+
+    public int size() {
+        return changes.size();
+    }
+}
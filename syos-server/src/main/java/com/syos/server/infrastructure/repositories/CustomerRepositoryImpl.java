@@ -90,11 +90,40 @@ public class CustomerRepositoryImpl implements ICustomerRepository {
 
     @Override
     public void update(Customer customer) {
-        // Similar to save but with UPDATE
+        lock.writeLock().lock();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                 "UPDATE customers SET name = ?, email = ?, phone = ?, address = ? " +
+                 "WHERE customer_id = ?")) {
+            
+            stmt.setString(1, customer.getName());
+            stmt.setString(2, customer.getEmail());
+            stmt.setString(3, customer.getPhone());
+            stmt.setString(4, customer.getAddress());
+            stmt.setString(5, customer.getCustomerId());
+            stmt.executeUpdate();
+            
+        } catch (SQLException e) {
+            throw new RuntimeException("Database error", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     @Override
     public void delete(String customerId) {
-        // Similar pattern
+        lock.writeLock().lock();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                 "DELETE FROM customers WHERE customer_id = ?")) {
+            
+            stmt.setString(1, customerId);
+            stmt.executeUpdate();
+            
+        } catch (SQLException e) {
+            throw new RuntimeException("Database error", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 }
\ No newline at end of file
@@ -4,20 +4,21 @@ import com.syos.server.domain.entities.Item;
 import com.syos.server.domain.repositories.IItemRepository;
 import com.syos.server.infrastructure.database.DatabaseConnection;
 
+import java.math.BigDecimal;
 import java.sql.*;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.*;
 
 
+/**
+ * JDBC item repository. Stock only changes through relative UPDATEs and
+ * the stock movement log, so concurrent changes never overwrite each other.
+ * Sales are logged in stock_movements and reach items.current_stock when
+ * the log is reconciled.
+ */
 public class ItemRepositoryImpl implements IItemRepository {
-    private final ReadWriteLock lock = new ReentrantReadWriteLock();
 
     @Override
     public Optional<Item> findByCode(String itemCode) {
-        lock.readLock().lock();
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(
                  "SELECT * FROM items WHERE item_code = ?")) {
@@ -32,14 +33,39 @@ public class ItemRepositoryImpl implements IItemRepository {
             
         } catch (SQLException e) {
             throw new RuntimeException("Database error", e);
-        } finally {
-            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Item> findByCodes(Collection<String> itemCodes) {
+        if (itemCodes.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(itemCodes.size(), "?"));
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                 "SELECT * FROM items WHERE item_code IN (" + placeholders + ")")) {
+
+            int p = 1;
+            for (String itemCode : itemCodes) {
+                stmt.setString(p++, itemCode);
+            }
+            ResultSet rs = stmt.executeQuery();
+
+            List<Item> items = new ArrayList<>();
+            while (rs.next()) {
+                items.add(mapResultSetToItem(rs));
+            }
+            return items;
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Database error", e);
         }
     }
 
     @Override
     public List<Item> findAll() {
-        lock.readLock().lock();
         try (Connection conn = DatabaseConnection.getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery("SELECT * FROM items")) {
@@ -52,19 +78,49 @@ public class ItemRepositoryImpl implements IItemRepository {
             
         } catch (SQLException e) {
             throw new RuntimeException("Database error", e);
-        } finally {
-            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Item> findPage(String afterItemCode, int limit, String categoryCode) {
+        // Seeks on the primary key index, so deep pages cost the same as the first
+        StringBuilder sql = new StringBuilder("SELECT * FROM items WHERE item_code > ?");
+        if (categoryCode != null) {
+            sql.append(" AND category_code = ?");
+        }
+        sql.append(" ORDER BY item_code LIMIT ?");
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+
+            int p = 1;
+            stmt.setString(p++, afterItemCode == null ? "" : afterItemCode);
+            if (categoryCode != null) {
+                stmt.setString(p++, categoryCode);
+            }
+            stmt.setInt(p, limit);
+            stmt.setFetchSize(Math.min(limit, 500));
+
+            List<Item> items = new ArrayList<>(Math.min(limit, 500));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    items.add(mapResultSetToItem(rs));
+                }
+            }
+            return items;
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Database error", e);
         }
     }
 
     @Override
     public List<Item> searchByName(String name) {
-        lock.readLock().lock();
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(
-                 "SELECT * FROM items WHERE name LIKE ?")) {
+                 "SELECT * FROM items WHERE LOWER(name) LIKE ?")) {
             
-            stmt.setString(1, "%" + name + "%");
+            stmt.setString(1, "%" + name.toLowerCase(Locale.ROOT) + "%");
             ResultSet rs = stmt.executeQuery();
             
             List<Item> items = new ArrayList<>();
@@ -75,18 +131,67 @@ public class ItemRepositoryImpl implements IItemRepository {
             
         } catch (SQLException e) {
             throw new RuntimeException("Database error", e);
-        } finally {
-            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Item> search(String query, int limit) {
+        // Unranked fallback; the catalog cache answers searches from its index
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                 "SELECT * FROM items WHERE LOWER(item_code) LIKE ? " +
+                 "OR LOWER(name) LIKE ? OR LOWER(description) LIKE ? " +
+                 "ORDER BY name LIMIT ?")) {
+
+            String pattern = "%" + query.toLowerCase(Locale.ROOT) + "%";
+            stmt.setString(1, pattern);
+            stmt.setString(2, pattern);
+            stmt.setString(3, pattern);
+            stmt.setInt(4, limit);
+            ResultSet rs = stmt.executeQuery();
+
+            List<Item> items = new ArrayList<>();
+            while (rs.next()) {
+                items.add(mapResultSetToItem(rs));
+            }
+            return items;
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Database error", e);
+        }
+    }
+
+    @Override
+    public List<Item> findByPrefix(String prefix, int limit) {
+        // Fallback for code and whole-name prefixes; the catalog cache also matches later words
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                 "SELECT * FROM items WHERE LOWER(item_code) LIKE ? OR LOWER(name) LIKE ? " +
+                 "ORDER BY name LIMIT ?")) {
+
+            String pattern = prefix.trim().toLowerCase(Locale.ROOT) + "%";
+            stmt.setString(1, pattern);
+            stmt.setString(2, pattern);
+            stmt.setInt(3, limit);
+            ResultSet rs = stmt.executeQuery();
+
+            List<Item> items = new ArrayList<>();
+            while (rs.next()) {
+                items.add(mapResultSetToItem(rs));
+            }
+            return items;
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Database error", e);
         }
     }
 
     @Override
     public List<Item> findLowStockItems() {
-        lock.readLock().lock();
         try (Connection conn = DatabaseConnection.getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(
-                 "SELECT * FROM items WHERE current_stock <= reorder_level")) {
+                 "SELECT * FROM items WHERE stock_gap <= 0")) {
             
             List<Item> items = new ArrayList<>();
             while (rs.next()) {
@@ -96,14 +201,25 @@ public class ItemRepositoryImpl implements IItemRepository {
             
         } catch (SQLException e) {
             throw new RuntimeException("Database error", e);
-        } finally {
-            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public BigDecimal getInventoryValue() {
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                 "SELECT COALESCE(SUM(price * current_stock), 0) FROM items")) {
+
+            return rs.next() ? rs.getBigDecimal(1) : BigDecimal.ZERO;
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Database error", e);
         }
     }
 
     @Override
     public void save(Item item) {
-        lock.writeLock().lock();
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(
                  "INSERT INTO items (item_code, name, description, price, " +
@@ -120,14 +236,11 @@ public class ItemRepositoryImpl implements IItemRepository {
             
         } catch (SQLException e) {
             throw new RuntimeException("Database error", e);
-        } finally {
-            lock.writeLock().unlock();
         }
     }
 
     @Override
     public void update(Item item) {
-        lock.writeLock().lock();
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(
                  "UPDATE items SET name = ?, description = ?, price = ?, " +
@@ -143,14 +256,11 @@ public class ItemRepositoryImpl implements IItemRepository {
             
         } catch (SQLException e) {
             throw new RuntimeException("Database error", e);
-        } finally {
-            lock.writeLock().unlock();
         }
     }
 
     @Override
     public void delete(String itemCode) {
-        lock.writeLock().lock();
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(
                  "DELETE FROM items WHERE item_code = ?")) {
@@ -160,11 +270,104 @@ public class ItemRepositoryImpl implements IItemRepository {
             
         } catch (SQLException e) {
             throw new RuntimeException("Database error", e);
-        } finally {
-            lock.writeLock().unlock();
         }
     }
 
+    @Override
+    public void recordStockMovements(String reference, Map<String, Integer> deltas) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmt = conn.prepareStatement(
+                     "INSERT INTO stock_movements (item_code, delta, reference) VALUES (?, ?, ?)")) {
+
+                for (Map.Entry<String, Integer> delta : deltas.entrySet()) {
+                    stmt.setString(1, delta.getKey());
+                    stmt.setInt(2, delta.getValue());
+                    stmt.setString(3, reference);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+            conn.commit();
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Database error", e);
+        }
+    }
+
+    @Override
+    public int reconcileStockMovements() {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            // Fold only what is committed now; movements logged meanwhile wait for the next run
+            long upTo;
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT MAX(movement_id) FROM stock_movements")) {
+                rs.next();
+                upTo = rs.getLong(1);
+                if (rs.wasNull()) {
+                    conn.rollback();
+                    return 0;
+                }
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(
+                     "UPDATE items i SET current_stock = current_stock + " +
+                     "(SELECT SUM(m.delta) FROM stock_movements m " +
+                     " WHERE m.item_code = i.item_code AND m.movement_id <= ?) " +
+                     "WHERE i.item_code IN " +
+                     "(SELECT item_code FROM stock_movements WHERE movement_id <= ?)")) {
+                stmt.setLong(1, upTo);
+                stmt.setLong(2, upTo);
+                stmt.executeUpdate();
+            }
+
+            int folded;
+            try (PreparedStatement stmt = conn.prepareStatement(
+                     "DELETE FROM stock_movements WHERE movement_id <= ?")) {
+                stmt.setLong(1, upTo);
+                folded = stmt.executeUpdate();
+            }
+
+            conn.commit();
+            return folded;
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Database error", e);
+        }
+    }
+
+    @Override
+    public boolean incrementStock(String itemCode, int quantity) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                 "UPDATE items SET current_stock = current_stock + ? WHERE item_code = ?")) {
+
+            stmt.setInt(1, quantity);
+            stmt.setString(2, itemCode);
+            return stmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Database error", e);
+        }
+    }
+
+    /**
+     * Not tracked here: current_stock lags the movement log until it is
+     * reconciled, so only the item cache can say what changed
+     */
+    @Override
+    public long getCatalogVersion() {
+        return -1;
+    }
+
+    @Override
+    public List<String> findChangedSince(long version) {
+        return null;
+    }
+
     private Item mapResultSetToItem(ResultSet rs) throws SQLException {
         return new Item(
             rs.getString("item_code"),
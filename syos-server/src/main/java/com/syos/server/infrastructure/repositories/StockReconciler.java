@@ -0,0 +1,97 @@
+package com.syos.server.infrastructure.repositories;
+
+import com.syos.server.concurrency.MetricsSource;
+import com.syos.server.config.ServerConfig;
+import com.syos.server.domain.repositories.IItemRepository;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Periodically folds the stock movement log into items.current_stock.
+ *
+ * Runs once on construction, so stock read at startup is complete, then
+ * every syos.stock.reconcileIntervalMs on a background thread, and a last
+ * time on close().
+ */
+public class StockReconciler implements MetricsSource {
+
+    private final IItemRepository itemRepository;
+    private final long intervalMs;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    // Metrics
+    private final AtomicLong runs = new AtomicLong(0);
+    private final AtomicLong movementsFolded = new AtomicLong(0);
+    private final AtomicLong failures = new AtomicLong(0);
+    private volatile long lastRunAt;
+
+    public StockReconciler(IItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+        this.intervalMs = ServerConfig.getLong("syos.stock.reconcileIntervalMs", 5000);
+
+        int folded = reconcile();
+        System.out.println("✓ Stock movements reconciled (" + folded + " folded)");
+
+        this.thread = new Thread(this::run, "stock-reconciler");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                Thread.sleep(intervalMs);
+            } catch (InterruptedException e) {
+                return;
+            }
+            reconcile();
+        }
+    }
+
+    private int reconcile() {
+        try {
+            int folded = itemRepository.reconcileStockMovements();
+            runs.incrementAndGet();
+            movementsFolded.addAndGet(folded);
+            lastRunAt = System.currentTimeMillis();
+            return folded;
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            System.err.println("⚠ Stock reconciliation failed: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Stops the background thread and folds whatever is left
+     */
+    public void close() {
+        running = false;
+        thread.interrupt();
+        try {
+            thread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        reconcile();
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "stockReconciler";
+    }
+
+    @Override
+    public Object getMetricsSnapshot() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("intervalMs", intervalMs);
+        stats.put("runs", runs.get());
+        stats.put("movementsFolded", movementsFolded.get());
+        stats.put("failures", failures.get());
+        stats.put("lastRunAt", lastRunAt);
+        return stats;
+    }
+}
@@ -0,0 +1,291 @@
+package com.syos.server.infrastructure.repositories;
+
+import com.syos.server.concurrency.LatencyHistogram;
+import com.syos.server.concurrency.MetricsSource;
+import com.syos.server.config.ServerConfig;
+import com.syos.server.domain.entities.Bill;
+import com.syos.server.domain.entities.HourlySales;
+import com.syos.server.domain.entities.ItemSales;
+import com.syos.server.domain.entities.SalesLine;
+import com.syos.server.domain.repositories.IBillRepository;
+import com.syos.server.infrastructure.transaction.UnitOfWork;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind bill persistence with group commit.
+ *
+ * saveAsync() only queues the bill. A single flusher thread drains whatever
+ * has accumulated (up to batchSize, waiting at most maxDelayMs for more),
+ * writes the whole batch with multi-row INSERTs and commits once. Each
+ * caller's future completes only after the commit covering its bill, so a
+ * completed checkout is always durable. If a batch fails, its bills are
+ * retried one by one so a single bad bill cannot fail its neighbours.
+ *
+ * Work passed with a bill (the checkout's stock update) runs inside the
+ * batch's unit of work under its own savepoint, so stock and bill are
+ * committed together and a rejected checkout leaves no trace.
+ * Futures are completed on the common pool, not on the flusher: callers
+ * chain stock and reporting work on them, which must not hold up the
+ * next batch's commit.
+ * Reads go straight to the underlying repository.
+ */
+public class WriteBehindBillRepository implements IBillRepository, MetricsSource {
+
+    private static final Executor COMPLETIONS = ForkJoinPool.commonPool();
+
+    private final BillRepositoryImpl delegate;
+    private final BlockingQueue<PendingBill> queue;
+    private final int batchSize;
+    private final long maxDelayMs;
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    // Metrics
+    private final AtomicLong batchesCommitted = new AtomicLong(0);
+    private final AtomicLong billsCommitted = new AtomicLong(0);
+    private final AtomicLong billsFailed = new AtomicLong(0);
+    private final AtomicLong billsRejected = new AtomicLong(0);
+    private final AtomicLong largestBatch = new AtomicLong(0);
+    private final LatencyHistogram commitTimes = new LatencyHistogram();
+
+    public WriteBehindBillRepository(BillRepositoryImpl delegate) {
+        this.delegate = delegate;
+        this.queue = new LinkedBlockingQueue<>(ServerConfig.getInt("syos.bills.queueCapacity", 10_000));
+        this.batchSize = Math.max(1, ServerConfig.getInt("syos.bills.batchSize", 100));
+        this.maxDelayMs = ServerConfig.getLong("syos.bills.maxDelayMs", 2);
+
+        this.flusher = new Thread(this::flushLoop, "bill-write-behind");
+        this.flusher.start();
+    }
+
+    @Override
+    public CompletableFuture<Void> saveAsync(Bill bill, Runnable inSameTransaction) {
+        PendingBill pending = new PendingBill(bill, inSameTransaction);
+        if (!running || !queue.offer(pending)) {
+            pending.future.completeExceptionally(
+                new RejectedExecutionException("Bill write queue full"));
+        }
+        return pending.future;
+    }
+
+    @Override
+    public void save(Bill bill) {
+        try {
+            saveAsync(bill).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException
+                ? (RuntimeException) cause
+                : new RuntimeException("Database error", cause);
+        }
+    }
+
+    private void flushLoop() {
+        List<PendingBill> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingBill first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - batch.size());
+
+                // Linger briefly so concurrent checkouts share the commit
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    PendingBill next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+
+                flush(batch);
+            } catch (InterruptedException e) {
+                running = false;
+                // Interrupted while lingering: these bills were never written
+                RejectedExecutionException stopped = new RejectedExecutionException("Bill writer stopped");
+                batch.forEach(p -> completeExceptionally(p, stopped));
+            } catch (RuntimeException e) {
+                System.err.println("⚠ Bill write-behind flush failed: " + e.getMessage());
+                batch.forEach(p -> completeExceptionally(p, e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingBill> batch) {
+        long start = System.nanoTime();
+        // Futures complete on another thread, so isDone() cannot tell which bills were rejected
+        Set<PendingBill> rejected = new HashSet<>();
+        try (UnitOfWork uow = UnitOfWork.begin()) {
+            List<PendingBill> accepted = new ArrayList<>(batch.size());
+            List<Bill> bills = new ArrayList<>(batch.size());
+            for (PendingBill pending : batch) {
+                try {
+                    uow.runIsolated(pending.inSameTransaction);
+                } catch (RuntimeException e) {
+                    // e.g. insufficient stock: only this checkout is undone
+                    billsRejected.incrementAndGet();
+                    rejected.add(pending);
+                    completeExceptionally(pending, e);
+                    continue;
+                }
+                accepted.add(pending);
+                bills.add(pending.bill);
+            }
+
+            delegate.insertBatch(uow.connection(), bills);
+            uow.commit();
+
+            commitTimes.recordNanos(System.nanoTime() - start);
+            batchesCommitted.incrementAndGet();
+            billsCommitted.addAndGet(accepted.size());
+            largestBatch.accumulateAndGet(accepted.size(), Math::max);
+            accepted.forEach(WriteBehindBillRepository::complete);
+
+        } catch (SQLException e) {
+            // Nothing was committed, so every bill still waiting gets another go on its own
+            List<PendingBill> remaining = new ArrayList<>();
+            for (PendingBill pending : batch) {
+                if (!rejected.contains(pending)) {
+                    remaining.add(pending);
+                }
+            }
+            if (batch.size() == 1) {
+                remaining.forEach(p -> fail(p, e));
+            } else {
+                retryIndividually(remaining);
+            }
+        }
+    }
+
+    private void retryIndividually(List<PendingBill> batch) {
+        for (PendingBill pending : batch) {
+            try {
+                delegate.save(pending.bill, pending.inSameTransaction);
+                billsCommitted.incrementAndGet();
+                complete(pending);
+            } catch (RuntimeException e) {
+                fail(pending, e);
+            }
+        }
+    }
+
+    private void fail(PendingBill pending, Exception e) {
+        billsFailed.incrementAndGet();
+        System.err.println("⚠ Failed to persist bill " + pending.bill.getBillId() + ": " + e.getMessage());
+        completeExceptionally(pending,
+            e instanceof RuntimeException ? e : new RuntimeException("Database error", e));
+    }
+
+    private static void complete(PendingBill pending) {
+        pending.future.completeAsync(() -> null, COMPLETIONS);
+    }
+
+    private static void completeExceptionally(PendingBill pending, Throwable e) {
+        COMPLETIONS.execute(() -> pending.future.completeExceptionally(e));
+    }
+
+    /**
+     * Stops accepting bills and waits for the queued ones to be written
+     */
+    public void close() {
+        running = false;
+        try {
+            flusher.join(10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public Optional<Bill> findById(String billId) {
+        return delegate.findById(billId);
+    }
+
+    @Override
+    public List<Bill> findByCustomerId(String customerId) {
+        return delegate.findByCustomerId(customerId);
+    }
+
+    @Override
+    public List<Bill> findByDateRange(LocalDateTime start, LocalDateTime end) {
+        return delegate.findByDateRange(start, end);
+    }
+
+    @Override
+    public List<Bill> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Bill> findPage(String beforeBillId, int limit, String customerId,
+                               LocalDateTime start, LocalDateTime end) {
+        return delegate.findPage(beforeBillId, limit, customerId, start, end);
+    }
+
+    @Override
+    public void forEachBill(LocalDateTime start, LocalDateTime end, Consumer<Bill> consumer) {
+        delegate.forEachBill(start, end, consumer);
+    }
+
+    @Override
+    public List<HourlySales> summarizeByHour() {
+        return delegate.summarizeByHour();
+    }
+
+    @Override
+    public List<ItemSales> findItemSales(LocalDateTime start, LocalDateTime end, int limit) {
+        return delegate.findItemSales(start, end, limit);
+    }
+
+    @Override
+    public void forEachSalesLine(LocalDateTime since, Consumer<SalesLine> consumer) {
+        delegate.forEachSalesLine(since, consumer);
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "billWriteBehind";
+    }
+
+    @Override
+    public Object getMetricsSnapshot() {
+        long batches = batchesCommitted.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queued", queue.size());
+        stats.put("batchesCommitted", batches);
+        stats.put("billsCommitted", billsCommitted.get());
+        stats.put("billsFailed", billsFailed.get());
+        stats.put("billsRejected", billsRejected.get());
+        stats.put("averageBatchSize", batches == 0 ? 0.0 : (double) billsCommitted.get() / batches);
+        stats.put("largestBatch", largestBatch.get());
+        stats.put("commitTime", commitTimes.snapshot());
+        return stats;
+    }
+
+    private static class PendingBill {
+        private final Bill bill;
+        private final Runnable inSameTransaction;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        PendingBill(Bill bill, Runnable inSameTransaction) {
+            this.bill = bill;
+            this.inSameTransaction = inSameTransaction;
+        }
+    }
+}
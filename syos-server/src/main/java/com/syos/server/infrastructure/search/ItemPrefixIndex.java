@@ -0,0 +1,109 @@
+package com.syos.server.infrastructure.search;
+
+import com.syos.server.domain.entities.Item;
+
+import java.util.*;
+
+/**
+ * Immutable sorted-array prefix index for typeahead.
+ *
+ * Two arrays of case-folded keys, each paired with its item code: the
+ * primary one holds full names and item codes, the secondary one every
+ * later word of a name. A lookup binary-searches the first key at or
+ * after the prefix and walks forward while keys still start with it, so
+ * it costs O(log n + results). Primary matches come first, each tier in
+ * alphabetical order. The catalog cache rebuilds the index after a name
+ * or code changes, which is rare; stock changes do not touch it.
+ */
+public final class ItemPrefixIndex {
+
+    private final String[] primaryKeys;
+    private final String[] primaryCodes;
+    private final String[] secondaryKeys;
+    private final String[] secondaryCodes;
+
+    private ItemPrefixIndex(List<String[]> primary, List<String[]> secondary) {
+        this.primaryKeys = new String[primary.size()];
+        this.primaryCodes = new String[primary.size()];
+        fill(primary, primaryKeys, primaryCodes);
+
+        this.secondaryKeys = new String[secondary.size()];
+        this.secondaryCodes = new String[secondary.size()];
+        fill(secondary, secondaryKeys, secondaryCodes);
+    }
+
+    public static ItemPrefixIndex build(Collection<Item> items) {
+        List<String[]> primary = new ArrayList<>(items.size() * 2);
+        List<String[]> secondary = new ArrayList<>();
+
+        for (Item item : items) {
+            String code = item.getItemCode();
+            primary.add(new String[] { fold(code), code });
+
+            String name = fold(item.getName());
+            if (!name.isEmpty()) {
+                primary.add(new String[] { name, code });
+            }
+            List<String> words = ItemSearchIndex.tokenize(item.getName());
+            for (int i = 1; i < words.size(); i++) {
+                secondary.add(new String[] { words.get(i), code });
+            }
+        }
+        return new ItemPrefixIndex(primary, secondary);
+    }
+
+    private static void fill(List<String[]> entries, String[] keys, String[] codes) {
+        entries.sort(Comparator.comparing((String[] e) -> e[0]).thenComparing(e -> e[1]));
+        for (int i = 0; i < entries.size(); i++) {
+            keys[i] = entries.get(i)[0];
+            codes[i] = entries.get(i)[1];
+        }
+    }
+
+    private static String fold(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Codes of at most limit items whose code, name or a word of the name
+     * starts with the prefix
+     */
+    public List<String> lookup(String prefix, int limit) {
+        String folded = fold(prefix);
+        Set<String> result = new LinkedHashSet<>();
+        if (folded.isEmpty() || limit <= 0) {
+            return new ArrayList<>(result);
+        }
+
+        collect(primaryKeys, primaryCodes, folded, limit, result);
+        collect(secondaryKeys, secondaryCodes, folded, limit, result);
+        return new ArrayList<>(result);
+    }
+
+    private static void collect(String[] keys, String[] codes, String prefix,
+                                int limit, Set<String> result) {
+        int i = lowerBound(keys, prefix);
+        while (i < keys.length && result.size() < limit && keys[i].startsWith(prefix)) {
+            result.add(codes[i]);
+            i++;
+        }
+    }
+
+    private static int lowerBound(String[] keys, String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public int size() {
+        return primaryKeys.length + secondaryKeys.length;
+    }
+}
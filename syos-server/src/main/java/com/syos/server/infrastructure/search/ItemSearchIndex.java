@@ -0,0 +1,238 @@
+package com.syos.server.infrastructure.search;
+
+import com.syos.server.domain.entities.Item;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory inverted index over item code, name and description.
+ *
+ * Text is case-folded and split into alphanumeric tokens. Every token is
+ * posted under its 1- and 2-character prefixes and under each of its
+ * trigrams, so a query term of any length finds tokens that start with
+ * it (short terms) or contain it (three characters or more) without
+ * scanning the catalog. Trigram hits are confirmed against the item's
+ * tokens, so false positives never reach the caller. A query with several
+ * terms returns items matching all of them.
+ *
+ * Results are ranked by field (code over name over description) and by
+ * how well the term matched (whole token over prefix over infix), then by
+ * name. Items are re-indexed individually on save/update; a query racing
+ * with a re-index may miss that one item, but never returns a wrong one.
+ */
+public class ItemSearchIndex {
+
+    private static final int CODE_WEIGHT = 3;
+    private static final int NAME_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private static final int EXACT = 3;
+    private static final int PREFIX = 2;
+    private static final int INFIX = 1;
+
+    private final Map<String, Set<String>> postings = new ConcurrentHashMap<>();
+    private final Map<String, Document> documents = new ConcurrentHashMap<>();
+
+    /**
+     * Adds an item, replacing whatever was indexed for its code before
+     */
+    public void index(Item item) {
+        Document document = new Document(item);
+        Document previous = documents.put(item.getItemCode(), document);
+        if (previous != null) {
+            for (String key : previous.keys()) {
+                if (!document.keys().contains(key)) {
+                    unpost(key, item.getItemCode());
+                }
+            }
+        }
+        for (String key : document.keys()) {
+            postings.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(item.getItemCode());
+        }
+    }
+
+    public void remove(String itemCode) {
+        Document previous = documents.remove(itemCode);
+        if (previous != null) {
+            for (String key : previous.keys()) {
+                unpost(key, itemCode);
+            }
+        }
+    }
+
+    private void unpost(String key, String itemCode) {
+        postings.computeIfPresent(key, (k, codes) -> {
+            codes.remove(itemCode);
+            return codes.isEmpty() ? null : codes;
+        });
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Item codes matching every term of the query, best first
+     */
+    public List<String> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        // Start from the rarest posting list and confirm the rest per item
+        Set<String> candidates = null;
+        for (String term : terms) {
+            Set<String> matches = candidatesFor(term);
+            if (candidates == null || matches.size() < candidates.size()) {
+                candidates = matches;
+            }
+        }
+
+        List<ScoredItem> scored = new ArrayList<>();
+        for (String itemCode : candidates) {
+            Document document = documents.get(itemCode);
+            if (document == null) {
+                continue;
+            }
+            int score = 0;
+            for (String term : terms) {
+                int termScore = document.score(term);
+                if (termScore == 0) {
+                    score = 0;
+                    break;
+                }
+                score += termScore;
+            }
+            if (score > 0) {
+                scored.add(new ScoredItem(itemCode, document.name, score));
+            }
+        }
+
+        scored.sort(Comparator.comparingInt((ScoredItem s) -> -s.score)
+            .thenComparing(s -> s.name)
+            .thenComparing(s -> s.itemCode));
+
+        List<String> result = new ArrayList<>(Math.min(limit, scored.size()));
+        for (int i = 0; i < scored.size() && i < limit; i++) {
+            result.add(scored.get(i).itemCode);
+        }
+        return result;
+    }
+
+    private Set<String> candidatesFor(String term) {
+        if (term.length() < 3) {
+            return postings.getOrDefault("^" + term, Collections.emptySet());
+        }
+
+        // Intersect the term's trigrams, smallest list first
+        List<Set<String>> lists = new ArrayList<>();
+        for (String gram : trigrams(term)) {
+            Set<String> codes = postings.get(gram);
+            if (codes == null) {
+                return Collections.emptySet();
+            }
+            lists.add(codes);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        Set<String> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Case-folded alphanumeric tokens
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static List<String> trigrams(String token) {
+        List<String> grams = new ArrayList<>();
+        for (int i = 0; i + 3 <= token.length(); i++) {
+            grams.add(token.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /**
+     * What was indexed for one item
+     */
+    private static class Document {
+        private final String name;
+        private final List<String> codeTokens;
+        private final List<String> nameTokens;
+        private final List<String> descriptionTokens;
+        private final Set<String> keys = new HashSet<>();
+
+        Document(Item item) {
+            this.name = item.getName() == null ? "" : item.getName();
+            this.codeTokens = tokenize(item.getItemCode());
+            this.nameTokens = tokenize(item.getName());
+            this.descriptionTokens = tokenize(item.getDescription());
+
+            addKeys(codeTokens);
+            addKeys(nameTokens);
+            addKeys(descriptionTokens);
+        }
+
+        private void addKeys(List<String> tokens) {
+            for (String token : tokens) {
+                keys.add("^" + token.substring(0, 1));
+                if (token.length() >= 2) {
+                    keys.add("^" + token.substring(0, 2));
+                }
+                keys.addAll(trigrams(token));
+            }
+        }
+
+        Set<String> keys() {
+            return keys;
+        }
+
+        int score(String term) {
+            return Math.max(CODE_WEIGHT * match(codeTokens, term),
+                   Math.max(NAME_WEIGHT * match(nameTokens, term),
+                            DESCRIPTION_WEIGHT * match(descriptionTokens, term)));
+        }
+
+        private static int match(List<String> tokens, String term) {
+            int best = 0;
+            for (String token : tokens) {
+                if (token.equals(term)) {
+                    return EXACT;
+                } else if (token.startsWith(term)) {
+                    best = Math.max(best, PREFIX);
+                } else if (term.length() >= 3 && token.contains(term)) {
+                    best = Math.max(best, INFIX);
+                }
+            }
+            return best;
+        }
+    }
+
+    private static class ScoredItem {
+        private final String itemCode;
+        private final String name;
+        private final int score;
+
+        ScoredItem(String itemCode, String name, int score) {
+            this.itemCode = itemCode;
+            this.name = name;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.syos.server.infrastructure.search;
+
+import com.syos.server.domain.entities.Item;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Set of item codes currently at or below their reorder level.
+ *
+ * The catalog cache calls track() for every stock change while it holds
+ * the item's map entry, so membership always matches the cached stock.
+ * When an item enters or leaves the set the cache calls notifyCrossed()
+ * once the entry is released, and registered listeners are told about
+ * the crossing.
+ */
+public class LowStockIndex {
+
+    /**
+     * Told when an item falls to its reorder level or is restocked above it
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void onThresholdCrossed(Item item, boolean nowLow);
+    }
+
+    private final Set<String> lowStock = ConcurrentHashMap.newKeySet();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final LongAdder crossings = new LongAdder();
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Records the item's current level
+     * @return true if it crossed its reorder level
+     */
+    public boolean track(Item item) {
+        return item.isLowStock()
+            ? lowStock.add(item.getItemCode())
+            : lowStock.remove(item.getItemCode());
+    }
+
+    public void remove(String itemCode) {
+        lowStock.remove(itemCode);
+    }
+
+    public void notifyCrossed(Item item) {
+        crossings.increment();
+        boolean nowLow = item.isLowStock();
+        for (Listener listener : listeners) {
+            try {
+                listener.onThresholdCrossed(item, nowLow);
+            } catch (RuntimeException e) {
+                System.err.println("⚠ Low stock listener failed: " + e.getMessage());
+            }
+        }
+    }
+
+    public Set<String> itemCodes() {
+        return Collections.unmodifiableSet(lowStock);
+    }
+
+    public int size() {
+        return lowStock.size();
+    }
+
+    public long getCrossings() {
+        return crossings.sum();
+    }
+}
@@ -0,0 +1,173 @@
+package com.syos.server.infrastructure.transaction;
+
+import com.syos.server.infrastructure.database.DatabaseConnection;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One database transaction bound to the current thread.
+ *
+ * While a unit of work is open, DatabaseConnection.getConnection() hands
+ * repositories a view of its connection, so every repository call joins the
+ * same transaction without any change to its code. On that view close(),
+ * commit(), rollback() and setAutoCommit() do nothing: only the owner of the
+ * unit of work decides the outcome. Closing without commit() rolls back.
+ * Units of work do not nest. Work that must only happen once the data is
+ * durable (e.g. cache updates) is registered with afterCommit().
+ *
+ * <pre>
+ * try (UnitOfWork uow = UnitOfWork.begin()) {
+ *     itemRepository.recordStockMovements(billId, sold);
+ *     itemRepository.incrementStock(returnedCode, returnedQuantity);
+ *     uow.commit();
+ * }
+ * </pre>
+ */
+public final class UnitOfWork implements AutoCloseable {
+
+    private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+
+    private final Connection connection;
+    private final Connection participant;
+    private final List<Runnable> afterCommit = new ArrayList<>();
+    private boolean committed;
+
+    private UnitOfWork(Connection connection) {
+        this.connection = connection;
+        this.participant = (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] { Connection.class },
+            new Participant());
+    }
+
+    /**
+     * Opens a transaction and binds it to the calling thread
+     */
+    public static UnitOfWork begin() throws SQLException {
+        if (CURRENT.get() != null) {
+            throw new IllegalStateException("A unit of work is already active on this thread");
+        }
+
+        Connection conn = DatabaseConnection.getConnection();
+        try {
+            conn.setAutoCommit(false);
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+
+        UnitOfWork uow = new UnitOfWork(conn);
+        CURRENT.set(uow);
+        return uow;
+    }
+
+    /**
+     * The unit of work bound to this thread, or null
+     */
+    public static UnitOfWork current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Runs the action once the current unit of work commits, or straight
+     * away if there is none. Dropped if the transaction rolls back.
+     */
+    public static void afterCommit(Runnable action) {
+        UnitOfWork uow = CURRENT.get();
+        if (uow == null) {
+            action.run();
+        } else {
+            uow.afterCommit.add(action);
+        }
+    }
+
+    /**
+     * Connection that takes part in this transaction without controlling it
+     */
+    public Connection connection() {
+        return participant;
+    }
+
+    /**
+     * Runs a step under a savepoint. If it throws, only its own changes are
+     * undone and the rest of the transaction carries on.
+     */
+    public void runIsolated(Runnable step) throws SQLException {
+        Savepoint savepoint = connection.setSavepoint();
+        int registered = afterCommit.size();
+        try {
+            step.run();
+        } catch (RuntimeException e) {
+            connection.rollback(savepoint);
+            afterCommit.subList(registered, afterCommit.size()).clear();
+            throw e;
+        }
+        connection.releaseSavepoint(savepoint);
+    }
+
+    public void commit() throws SQLException {
+        connection.commit();
+        committed = true;
+
+        for (Runnable action : afterCommit) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                System.err.println("⚠ After-commit action failed: " + e.getMessage());
+            }
+        }
+        afterCommit.clear();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        CURRENT.remove();
+        try {
+            if (!committed) {
+                connection.rollback();
+            }
+        } finally {
+            connection.close();
+        }
+    }
+
+    private class Participant implements InvocationHandler {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                case "commit":
+                case "setAutoCommit":
+                    return null;
+                case "rollback":
+                    if (args == null) {
+                        return null;
+                    }
+                    break;
+                case "getAutoCommit":
+                    return false;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "UnitOfWork[" + connection + "]";
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
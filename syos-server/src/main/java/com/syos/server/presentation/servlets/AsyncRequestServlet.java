@@ -0,0 +1,199 @@
+package com.syos.server.presentation.servlets;
+
+import com.syos.common.util.JsonUtil;
+import com.syos.server.concurrency.RequestProcessor;
+import com.syos.server.config.ServerConfig;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Base class for servlets that hand work to the RequestProcessor.
+ *
+ * Instead of parking the Tomcat thread on future.get(), the request is put
+ * into async mode and the response is written when the future completes,
+ * so the connector thread goes straight back to the pool.
+ * A full queue maps to 503, a request that outlives the timeout to 504,
+ * and an IllegalArgumentException from the business layer to 400.
+ */
+public abstract class AsyncRequestServlet extends HttpServlet {
+
+    private static final long DEFAULT_TIMEOUT_MS = 30_000;
+
+    protected RequestProcessor requestProcessor;
+    private long requestTimeoutMs;
+
+    @Override
+    public void init() throws ServletException {
+        requestProcessor = (RequestProcessor) getServletContext()
+            .getAttribute("requestProcessor");
+        requestTimeoutMs = ServerConfig.getLong("syos.http.requestTimeoutMs", DEFAULT_TIMEOUT_MS);
+    }
+
+    /**
+     * Writes the successful result of a future to the response body
+     */
+    @FunctionalInterface
+    protected interface ResultWriter<T> {
+        void write(T result, HttpServletResponse resp) throws IOException;
+    }
+
+    /**
+     * Completes the HTTP exchange asynchronously once the future finishes
+     */
+    protected <T> void respondAsync(HttpServletRequest req, HttpServletResponse resp,
+                                    CompletableFuture<T> future, ResultWriter<T> writer) {
+        AsyncContext async = req.startAsync();
+        async.setTimeout(requestTimeoutMs);
+        AtomicBoolean responded = new AtomicBoolean(false);
+
+        async.addListener(new AsyncListener() {
+            @Override
+            public void onTimeout(AsyncEvent event) throws IOException {
+                if (responded.compareAndSet(false, true)) {
+                    // Requests still waiting in the queue are skipped by the workers
+                    future.cancel(false);
+                    writeError(resp, HttpServletResponse.SC_GATEWAY_TIMEOUT, "Request timed out");
+                    async.complete();
+                }
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                if (responded.compareAndSet(false, true)) {
+                    // The connection failed: nothing can be written, but the request must still end
+                    future.cancel(false);
+                    event.getAsyncContext().complete();
+                }
+            }
+
+            @Override
+            public void onComplete(AsyncEvent event) {}
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {}
+        });
+
+        future.whenComplete((result, error) -> {
+            if (!responded.compareAndSet(false, true)) {
+                return;
+            }
+            // Write on a container thread, not on the worker that completed the future
+            async.start(() -> {
+                try {
+                    if (error == null) {
+                        resp.setStatus(HttpServletResponse.SC_OK);
+                        resp.setContentType("application/json");
+                        writer.write(result, resp);
+                    } else {
+                        Throwable cause = unwrap(error);
+                        writeError(resp, statusFor(cause), String.valueOf(cause.getMessage()));
+                    }
+                } catch (IOException | RuntimeException e) {
+                    System.err.println("Failed to write response: " + e.getMessage());
+                } finally {
+                    async.complete();
+                }
+            });
+        });
+    }
+
+    /**
+     * Adds an ETag to a successful response
+     */
+    protected static <T> ResultWriter<T> withETag(String etag, ResultWriter<T> writer) {
+        return (result, resp) -> {
+            resp.setHeader("ETag", etag);
+            resp.setHeader("Cache-Control", "no-cache");
+            writer.write(result, resp);
+        };
+    }
+
+    /**
+     * Answers 304 Not Modified if the request's If-None-Match holds the ETag
+     * @return true if the response has been sent
+     */
+    protected static boolean notModified(HttpServletRequest req, HttpServletResponse resp, String etag) {
+        String ifNoneMatch = req.getHeader("If-None-Match");
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag) || tag.equals("*")) {
+                resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                resp.setHeader("ETag", etag);
+                resp.setHeader("Cache-Control", "no-cache");
+                return true;
+            }
+        }
+        return false;
+    }
+
+    protected static void writeError(HttpServletResponse resp, int status, String message)
+            throws IOException {
+        resp.setStatus(status);
+        resp.setContentType("application/json");
+        JsonUtil.toJson(Collections.singletonMap("error", message), resp.getWriter());
+    }
+
+    /**
+     * Optional positive integer query parameter, capped at max
+     * @throws IllegalArgumentException if present but not a positive number
+     */
+    protected static int positiveIntParameter(HttpServletRequest req, String name,
+                                              int defaultValue, int max) {
+        String value = req.getParameter(name);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed > 0) {
+                return Math.min(parsed, max);
+            }
+        } catch (NumberFormatException e) {
+            // fall through
+        }
+        throw new IllegalArgumentException("Invalid " + name + ": " + value);
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private static int statusFor(Throwable cause) {
+        if (cause instanceof IllegalArgumentException) {
+            return HttpServletResponse.SC_BAD_REQUEST;
+        }
+        if (cause instanceof RejectedExecutionException) {
+            return HttpServletResponse.SC_SERVICE_UNAVAILABLE;
+        }
+        if (cause instanceof TimeoutException || cause instanceof CancellationException) {
+            return HttpServletResponse.SC_GATEWAY_TIMEOUT;
+        }
+        return HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+    }
+}
@@ -0,0 +1,102 @@
+package com.syos.server.presentation.servlets;
+
+import com.syos.common.dto.BillDto;
+import com.syos.common.dto.BillPage;
+import com.syos.common.dto.BillPageRequest;
+import com.syos.common.util.JsonUtil;
+import com.syos.server.concurrency.ClientRequest;
+import com.syos.server.config.ServerConfig;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Saved bills, one at a time or in pages newest first
+ */
+public class BillServlet extends AsyncRequestServlet {
+
+    private int defaultPageSize;
+    private int maxPageSize;
+
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        defaultPageSize = ServerConfig.getInt("syos.bills.defaultPageSize", 20);
+        maxPageSize = ServerConfig.getInt("syos.bills.maxPageSize", 200);
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException {
+
+        String action = req.getParameter("action");
+
+        if ("get".equals(action)) {
+            // ?action=get&id=BILL-1234
+            String billId = req.getParameter("id");
+            if (billId == null || billId.isEmpty()) {
+                writeError(resp, HttpServletResponse.SC_BAD_REQUEST, "Missing id");
+                return;
+            }
+
+            ClientRequest<BillDto> clientRequest = new ClientRequest<>(
+                ClientRequest.RequestType.GET_BILL, billId);
+
+            respondAsync(req, resp, requestProcessor.submitRequest(clientRequest),
+                (bill, response) -> {
+                    if (bill == null) {
+                        writeError(response, HttpServletResponse.SC_NOT_FOUND, "Bill not found: " + billId);
+                    } else {
+                        JsonUtil.toJson(bill, response.getWriter());
+                    }
+                });
+
+        } else if (action == null || "page".equals(action)) {
+            // ?action=page&limit=N[&before=BILL-ID][&customer=ID][&from=D][&to=D]
+            // before is the nextCursor of the previous page; dates are inclusive
+            int limit;
+            LocalDate from;
+            LocalDate to;
+            try {
+                limit = positiveIntParameter(req, "limit", defaultPageSize, maxPageSize);
+                from = dateParameter(req, "from");
+                to = dateParameter(req, "to");
+            } catch (DateTimeParseException e) {
+                writeError(resp, HttpServletResponse.SC_BAD_REQUEST, "Dates must be yyyy-MM-dd");
+                return;
+            } catch (IllegalArgumentException e) {
+                writeError(resp, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+                return;
+            }
+            if (from != null && to != null && from.isAfter(to)) {
+                writeError(resp, HttpServletResponse.SC_BAD_REQUEST, "from must not be after to");
+                return;
+            }
+
+            ClientRequest<BillPage> clientRequest = new ClientRequest<>(
+                ClientRequest.RequestType.GET_BILLS_PAGE,
+                new BillPageRequest(optionalParameter(req, "before"), limit,
+                    optionalParameter(req, "customer"), from, to));
+
+            respondAsync(req, resp, requestProcessor.submitRequest(clientRequest),
+                (page, response) -> JsonUtil.toJson(page, response.getWriter()));
+
+        } else {
+            writeError(resp, HttpServletResponse.SC_BAD_REQUEST, "Unknown action: " + action);
+        }
+    }
+
+    private static String optionalParameter(HttpServletRequest req, String name) {
+        String value = req.getParameter(name);
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static LocalDate dateParameter(HttpServletRequest req, String name) {
+        String value = optionalParameter(req, name);
+        return value == null ? null : LocalDate.parse(value);
+    }
+}
@@ -3,61 +3,47 @@ package com.syos.server.presentation.servlets;
 import com.syos.common.dto.*;
 import com.syos.common.util.JsonUtil;
 import com.syos.server.concurrency.ClientRequest;
-import com.syos.server.concurrency.RequestProcessor;
+import com.syos.server.presentation.websocket.DashboardWebSocket;
 
 import javax.servlet.ServletException;
-import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
 
 /**
  * Servlet that handles checkout requests
- * Routes requests through the BlockingQueue RequestProcessor
+ * Routes requests through the RequestProcessor queue
  */
-public class CheckoutServlet extends HttpServlet {
-    
-    private RequestProcessor requestProcessor;
-
-    @Override
-    public void init() throws ServletException {
-        // Get RequestProcessor from ServletContext
-        requestProcessor = (RequestProcessor) getServletContext()
-            .getAttribute("requestProcessor");
-    }
+public class CheckoutServlet extends AsyncRequestServlet {
 
     @Override
     protected void doPost(HttpServletRequest req, HttpServletResponse resp) 
             throws ServletException, IOException {
         
+        CheckoutRequest checkoutRequest;
         try {
-            // Read request body
-            String jsonBody = req.getReader().lines()
-                .collect(Collectors.joining());
-            
-            // Parse JSON to DTO
-            CheckoutRequest checkoutRequest = JsonUtil.fromJson(
-                jsonBody, CheckoutRequest.class);
-
-            // Create client request and submit to queue
-            ClientRequest<BillDto> clientRequest = new ClientRequest<>(
-                ClientRequest.RequestType.CHECKOUT, checkoutRequest);
-            
-            CompletableFuture<BillDto> future = requestProcessor.submitRequest(clientRequest);
-
-            com.syos.server.presentation.websocket.DashboardWebSocket.broadcast("REFRESH_DASHBOARD");
-            BillDto bill = future.get();
-
-            // Send response
-            resp.setContentType("application/json");
-            resp.setStatus(HttpServletResponse.SC_OK);
-            resp.getWriter().write(JsonUtil.toJson(bill));
-
-        } catch (Exception e) {
-            resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-            resp.getWriter().write("{\"error\": \"" + e.getMessage() + "\"}");
+            // Parse the request body straight into the DTO
+            checkoutRequest = JsonUtil.fromJson(req.getReader(), CheckoutRequest.class);
+            if (checkoutRequest == null) {
+                throw new IllegalArgumentException("Empty request body");
+            }
+        } catch (RuntimeException e) {
+            writeError(resp, HttpServletResponse.SC_BAD_REQUEST, "Invalid checkout request");
+            return;
         }
+
+        // Create client request and submit to queue
+        ClientRequest<BillDto> clientRequest = new ClientRequest<>(
+            ClientRequest.RequestType.CHECKOUT, checkoutRequest);
+        
+        CompletableFuture<BillDto> future = requestProcessor.submitRequest(clientRequest);
+
+        // Response is written when the checkout completes
+        // The bill is written before dashboards are told, so nothing can stand between the sale and its receipt
+        respondAsync(req, resp, future, (bill, response) -> {
+            JsonUtil.toJson(bill, response.getWriter());
+            DashboardWebSocket.broadcast("REFRESH_DASHBOARD");
+        });
     }
-}
\ No newline at end of file
+}
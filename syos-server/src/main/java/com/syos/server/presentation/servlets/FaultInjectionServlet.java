@@ -0,0 +1,149 @@
+package com.syos.server.presentation.servlets;
+
+import com.syos.common.util.JsonUtil;
+import com.syos.server.concurrency.ClientRequest;
+import com.syos.server.concurrency.LatencyInjector;
+import com.syos.server.concurrency.LatencyProfile;
+import com.syos.server.concurrency.RequestProcessor;
+import com.syos.server.config.ServerConfig;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Admin endpoint for latency / fault injection
+ *
+ *   GET    /api/admin/faults  current state and counters
+ *   POST   /api/admin/faults  {"enabled":true,"profiles":{"CHECKOUT":{...}}}
+ *   DELETE /api/admin/faults  disable and remove all profiles
+ *
+ * Only reachable from the server machine unless syos.admin.allowRemote=true.
+ */
+public class FaultInjectionServlet extends HttpServlet {
+
+    private LatencyInjector latencyInjector;
+    private boolean allowRemote;
+
+    @Override
+    public void init() throws ServletException {
+        RequestProcessor requestProcessor = (RequestProcessor) getServletContext()
+            .getAttribute("requestProcessor");
+        latencyInjector = requestProcessor.getLatencyInjector();
+        allowRemote = ServerConfig.getBoolean("syos.admin.allowRemote", false);
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException {
+        if (!checkAccess(req, resp)) {
+            return;
+        }
+        writeState(resp);
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException {
+        if (!checkAccess(req, resp)) {
+            return;
+        }
+
+        try {
+            FaultSettings settings = JsonUtil.fromJson(req.getReader(), FaultSettings.class);
+            if (settings == null) {
+                throw new IllegalArgumentException("Request body is required");
+            }
+
+            // Check the whole body before changing anything
+            Map<ClientRequest.RequestType, LatencyProfile> profiles = parseProfiles(settings.profiles);
+            if (!profiles.isEmpty()) {
+                latencyInjector.setProfiles(profiles);
+            }
+            if (settings.enabled != null) {
+                latencyInjector.setEnabled(settings.enabled);
+            }
+        } catch (RuntimeException e) {
+            resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            resp.setContentType("application/json");
+            resp.getWriter().write(JsonUtil.toJson(
+                Collections.singletonMap("error", String.valueOf(e.getMessage()))));
+            return;
+        }
+        writeState(resp);
+    }
+
+    @Override
+    protected void doDelete(HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException {
+        if (!checkAccess(req, resp)) {
+            return;
+        }
+        latencyInjector.setEnabled(false);
+        latencyInjector.clearProfiles();
+        writeState(resp);
+    }
+
+    private static Map<ClientRequest.RequestType, LatencyProfile> parseProfiles(
+            Map<String, LatencyProfile> raw) {
+        Map<ClientRequest.RequestType, LatencyProfile> profiles =
+            new EnumMap<>(ClientRequest.RequestType.class);
+        if (raw == null) {
+            return profiles;
+        }
+        for (Map.Entry<String, LatencyProfile> entry : raw.entrySet()) {
+            ClientRequest.RequestType type;
+            try {
+                type = ClientRequest.RequestType.valueOf(entry.getKey());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown request type: " + entry.getKey());
+            }
+            LatencyProfile profile = entry.getValue();
+            if (profile == null) {
+                throw new IllegalArgumentException("Missing profile for " + type);
+            }
+            try {
+                profile.validate();
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(type + ": " + e.getMessage());
+            }
+            profiles.put(type, profile);
+        }
+        return profiles;
+    }
+
+    private boolean checkAccess(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        if (allowRemote || InetAddress.getByName(req.getRemoteAddr()).isLoopbackAddress()) {
+            return true;
+        }
+        resp.sendError(HttpServletResponse.SC_FORBIDDEN);
+        return false;
+    }
+
+    private void writeState(HttpServletResponse resp) throws IOException {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("enabled", latencyInjector.isEnabled());
+        state.put("profiles", latencyInjector.getProfiles());
+        state.put("delayedRequests", latencyInjector.getDelayedRequests());
+        state.put("injectedDelayMs", latencyInjector.getInjectedDelayMs());
+        state.put("injectedFailures", latencyInjector.getInjectedFailures());
+
+        resp.setContentType("application/json");
+        JsonUtil.toJson(state, resp.getWriter());
+    }
+
+    /**
+     * POST body; fields left out are not changed
+     */
+    private static class FaultSettings {
+        private Boolean enabled;
+        private Map<String, LatencyProfile> profiles;
+    }
+}
@@ -3,57 +3,41 @@ package com.syos.server.presentation.servlets;
 import com.syos.common.dto.*;
 import com.syos.common.util.JsonUtil;
 import com.syos.server.concurrency.ClientRequest;
-import com.syos.server.concurrency.RequestProcessor;
+import com.syos.server.presentation.websocket.DashboardWebSocket;
 
 import javax.servlet.ServletException;
-import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 
-import java.util.stream.Collectors;
-
-public class InventoryServlet extends HttpServlet {
-    
-    private RequestProcessor requestProcessor;
+public class InventoryServlet extends AsyncRequestServlet {
 
     @Override
-    public void init() throws ServletException {
-        requestProcessor = (RequestProcessor) getServletContext()
-            .getAttribute("requestProcessor");
-    }
-
-@Override
-protected void doPost(HttpServletRequest req, HttpServletResponse resp) 
-        throws ServletException, IOException {
-    
-    try {
-        String type = req.getParameter("type");
-        String jsonBody = req.getReader().lines().collect(Collectors.joining());
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) 
+            throws ServletException, IOException {
+        
         ClientRequest<?> clientRequest;
-
-        if ("NEW_ITEM".equals(type)) {
-            // Case 1: Create a brand new product definition
-            ItemDto newItem = JsonUtil.fromJson(jsonBody, ItemDto.class);
-            clientRequest = new ClientRequest<>(ClientRequest.RequestType.ADD_ITEM, newItem);
-        } else {
-            // Case 2: Standard Stock Batch update (your existing logic)
-            InventoryBatchDto batch = JsonUtil.fromJson(jsonBody, InventoryBatchDto.class);
-            clientRequest = new ClientRequest<>(ClientRequest.RequestType.ADD_INVENTORY, batch);
+        try {
+            String type = req.getParameter("type");
+
+            if ("NEW_ITEM".equals(type)) {
+                // Case 1: Create a brand new product definition
+                ItemDto newItem = JsonUtil.fromJson(req.getReader(), ItemDto.class);
+                clientRequest = new ClientRequest<>(ClientRequest.RequestType.ADD_ITEM, newItem);
+            } else {
+                // Case 2: Standard Stock Batch update (your existing logic)
+                InventoryBatchDto batch = JsonUtil.fromJson(req.getReader(), InventoryBatchDto.class);
+                clientRequest = new ClientRequest<>(ClientRequest.RequestType.ADD_INVENTORY, batch);
+            }
+        } catch (RuntimeException e) {
+            writeError(resp, HttpServletResponse.SC_BAD_REQUEST, "Invalid inventory request");
+            return;
         }
 
-        // Submit to the concurrent RequestProcessor
-        requestProcessor.submitRequest(clientRequest).get();
-
-        // Fix for your previous Dashboard issue:
-        com.syos.server.presentation.websocket.DashboardWebSocket.broadcast("REFRESH_DASHBOARD");
-
-        resp.setStatus(HttpServletResponse.SC_OK);
-        resp.getWriter().write("{\"success\": true}");
-
-    } catch (Exception e) {
-        resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-        resp.getWriter().write("{\"error\": \"" + e.getMessage() + "\"}");
+        // Submit to the concurrent RequestProcessor, respond when it is applied
+        respondAsync(req, resp, requestProcessor.submitRequest(clientRequest), (ignored, response) -> {
+            response.getWriter().write("{\"success\": true}");
+            DashboardWebSocket.broadcast("REFRESH_DASHBOARD");
+        });
     }
 }
-}
\ No newline at end of file
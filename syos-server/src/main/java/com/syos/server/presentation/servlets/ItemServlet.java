@@ -1,62 +1,151 @@
 package com.syos.server.presentation.servlets;
 
+import com.syos.common.dto.CatalogChanges;
+import com.syos.common.dto.InventorySummaryDto;
 import com.syos.common.dto.ItemDto;
+import com.syos.common.dto.ItemPage;
+import com.syos.common.dto.ItemPageRequest;
+import com.syos.common.dto.SearchRequest;
 import com.syos.common.util.JsonUtil;
 import com.syos.server.concurrency.ClientRequest;
-import com.syos.server.concurrency.RequestProcessor;
+import com.syos.server.config.ServerConfig;
 
 import javax.servlet.ServletException;
-import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
-public class ItemServlet extends HttpServlet {
-    
-    private RequestProcessor requestProcessor;
+public class ItemServlet extends AsyncRequestServlet {
+
+    private int defaultSearchLimit;
+    private int maxSearchLimit;
+    private int defaultAutocompleteLimit;
+    private int maxAutocompleteLimit;
+    private int defaultPageLimit;
+    private int maxPageLimit;
 
     @Override
     public void init() throws ServletException {
-        requestProcessor = (RequestProcessor) getServletContext()
-            .getAttribute("requestProcessor");
+        super.init();
+        defaultSearchLimit = ServerConfig.getInt("syos.search.defaultLimit", 50);
+        maxSearchLimit = ServerConfig.getInt("syos.search.maxLimit", 500);
+        defaultAutocompleteLimit = ServerConfig.getInt("syos.autocomplete.defaultLimit", 10);
+        maxAutocompleteLimit = ServerConfig.getInt("syos.autocomplete.maxLimit", 50);
+        defaultPageLimit = ServerConfig.getInt("syos.items.page.defaultLimit", 100);
+        maxPageLimit = ServerConfig.getInt("syos.items.page.maxLimit", 1000);
     }
 
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) 
             throws ServletException, IOException {
         
-        try {
-            String action = req.getParameter("action");
+        String action = req.getParameter("action");
+
+        // Every response here derives from the catalog, so its version is
+        // the ETag. Read before the request is queued, the data sent is at
+        // least that new; a racing change only costs the client a refetch.
+        long catalogVersion = requestProcessor.getCatalogVersion();
+        String etag = catalogVersion < 0 ? null : "\"" + catalogVersion + "\"";
+        if (etag != null && notModified(req, resp, etag)) {
+            return;
+        }
+        
+        if ("getAll".equals(action)) {
+            ClientRequest<List<ItemDto>> clientRequest = new ClientRequest<>(
+                ClientRequest.RequestType.GET_ALL_ITEMS, null);
+            
+            CompletableFuture<List<ItemDto>> future = 
+                requestProcessor.submitRequest(clientRequest);
+            
+            respondAsync(req, resp, future,
+                withETag(etag, (items, response) -> JsonUtil.writeArray(items, response.getWriter())));
+            
+        } else if ("page".equals(action)) {
+            // Keyset pagination: ?action=page&after=<last item code>&limit=N&category=C
+            int limit;
+            try {
+                limit = positiveIntParameter(req, "limit", defaultPageLimit, maxPageLimit);
+            } catch (IllegalArgumentException e) {
+                writeError(resp, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+                return;
+            }
+            String after = req.getParameter("after");
+            String category = req.getParameter("category");
+
+            ClientRequest<ItemPage> clientRequest = new ClientRequest<>(
+                ClientRequest.RequestType.GET_ITEMS_PAGE,
+                new ItemPageRequest(
+                    after == null || after.isEmpty() ? null : after,
+                    limit,
+                    category == null || category.isEmpty() ? null : category));
+
+            respondAsync(req, resp, requestProcessor.submitRequest(clientRequest),
+                withETag(etag, (page, response) -> JsonUtil.toJson(page, response.getWriter())));
+
+        } else if ("changes".equals(action)) {
+            // Incremental sync: ?action=changes&since=<version from the last call>
+            long since;
+            try {
+                String sinceParam = req.getParameter("since");
+                since = sinceParam == null || sinceParam.isEmpty() ? 0 : Long.parseLong(sinceParam);
+            } catch (NumberFormatException e) {
+                writeError(resp, HttpServletResponse.SC_BAD_REQUEST, "since must be a catalog version");
+                return;
+            }
+
+            ClientRequest<CatalogChanges> clientRequest = new ClientRequest<>(
+                ClientRequest.RequestType.GET_ITEM_CHANGES, since);
+
+            respondAsync(req, resp, requestProcessor.submitRequest(clientRequest),
+                withETag(etag, (changes, response) -> JsonUtil.toJson(changes, response.getWriter())));
+
+        } else if ("search".equals(action)) {
+            String query = req.getParameter("q");
+            int limit;
+            try {
+                limit = positiveIntParameter(req, "limit", defaultSearchLimit, maxSearchLimit);
+            } catch (IllegalArgumentException e) {
+                writeError(resp, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+                return;
+            }
+            
+            ClientRequest<List<ItemDto>> clientRequest = new ClientRequest<>(
+                ClientRequest.RequestType.SEARCH_ITEMS,
+                new SearchRequest(query == null ? "" : query, limit));
             
-            if ("getAll".equals(action)) {
-                ClientRequest<List<ItemDto>> clientRequest = new ClientRequest<>(
-                    ClientRequest.RequestType.GET_ALL_ITEMS, null);
-                
-                CompletableFuture<List<ItemDto>> future = 
-                    requestProcessor.submitRequest(clientRequest);
-                
-                List<ItemDto> items = future.get();
-                
-                resp.setContentType("application/json");
-                resp.getWriter().write(JsonUtil.toJson(items));
-                
-            } else if ("search".equals(action)) {
-                String query = req.getParameter("q");
-                
-                ClientRequest<List<ItemDto>> clientRequest = new ClientRequest<>(
-                    ClientRequest.RequestType.SEARCH_ITEMS, query);
-                
-                List<ItemDto> items = requestProcessor.submitRequest(clientRequest).get();
-                
-                resp.setContentType("application/json");
-                resp.getWriter().write(JsonUtil.toJson(items));
+            respondAsync(req, resp, requestProcessor.submitRequest(clientRequest),
+                withETag(etag, (items, response) -> JsonUtil.writeArray(items, response.getWriter())));
+        } else if ("autocomplete".equals(action)) {
+            String prefix = req.getParameter("q");
+            int limit;
+            try {
+                limit = positiveIntParameter(req, "limit", defaultAutocompleteLimit, maxAutocompleteLimit);
+            } catch (IllegalArgumentException e) {
+                writeError(resp, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+                return;
             }
 
-        } catch (Exception e) {
-            resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-            resp.getWriter().write("{\"error\": \"" + e.getMessage() + "\"}");
+            ClientRequest<List<ItemDto>> clientRequest = new ClientRequest<>(
+                ClientRequest.RequestType.AUTOCOMPLETE,
+                new SearchRequest(prefix == null ? "" : prefix, limit));
+
+            respondAsync(req, resp, requestProcessor.submitRequest(clientRequest),
+                withETag(etag, (items, response) -> JsonUtil.writeArray(items, response.getWriter())));
+        } else if ("lowStock".equals(action)) {
+            ClientRequest<List<ItemDto>> clientRequest = new ClientRequest<>(
+                ClientRequest.RequestType.GET_LOW_STOCK, null);
+
+            respondAsync(req, resp, requestProcessor.submitRequest(clientRequest),
+                withETag(etag, (items, response) -> JsonUtil.writeArray(items, response.getWriter())));
+        } else if ("summary".equals(action)) {
+            // Catalog totals such as the inventory value, without sending the items
+            ClientRequest<InventorySummaryDto> clientRequest = new ClientRequest<>(
+                ClientRequest.RequestType.GET_INVENTORY_SUMMARY, null);
+
+            respondAsync(req, resp, requestProcessor.submitRequest(clientRequest),
+                withETag(etag, (summary, response) -> JsonUtil.toJson(summary, response.getWriter())));
         }
     }
-}
\ No newline at end of file
+}
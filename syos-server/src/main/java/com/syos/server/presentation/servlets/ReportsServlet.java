@@ -0,0 +1,173 @@
+package com.syos.server.presentation.servlets;
+
+import com.syos.common.dto.SalesBreakdownDto;
+import com.syos.common.dto.SalesBreakdownRequest;
+import com.syos.common.dto.SalesPointDto;
+import com.syos.common.dto.SalesReportRequest;
+import com.syos.common.dto.SalesSummaryDto;
+import com.syos.common.dto.TopItemDto;
+import com.syos.common.dto.TopSellersRequest;
+import com.syos.common.util.JsonUtil;
+import com.syos.server.concurrency.ClientRequest;
+import com.syos.server.config.ServerConfig;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Sales reports answered from the in-memory rollups
+ */
+public class ReportsServlet extends AsyncRequestServlet {
+
+    private int maxSeriesPoints;
+    private int defaultTopSellers;
+    private int maxTopSellers;
+    private int defaultBreakdownLimit;
+    private int maxBreakdownLimit;
+
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        maxSeriesPoints = ServerConfig.getInt("syos.reports.maxSeriesPoints", 1000);
+        defaultTopSellers = ServerConfig.getInt("syos.reports.topSellers.defaultLimit", 10);
+        // More rows than counters could not be trusted
+        maxTopSellers = ServerConfig.getInt("syos.reports.topSellers.capacity", 100);
+        defaultBreakdownLimit = ServerConfig.getInt("syos.reports.breakdown.defaultLimit", 50);
+        maxBreakdownLimit = ServerConfig.getInt("syos.reports.breakdown.maxLimit", 1000);
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException {
+
+        String action = req.getParameter("action");
+
+        // Dates are ISO (2024-01-31) and inclusive; both default to today
+        LocalDate from;
+        LocalDate to;
+        try {
+            to = dateParameter(req, "to", LocalDate.now());
+            from = dateParameter(req, "from", to);
+        } catch (DateTimeParseException e) {
+            writeError(resp, HttpServletResponse.SC_BAD_REQUEST, "Dates must be yyyy-MM-dd");
+            return;
+        }
+        if (from.isAfter(to)) {
+            writeError(resp, HttpServletResponse.SC_BAD_REQUEST, "from must not be after to");
+            return;
+        }
+
+        if ("summary".equals(action)) {
+            // ?action=summary&from=D&to=D
+            ClientRequest<SalesSummaryDto> clientRequest = new ClientRequest<>(
+                ClientRequest.RequestType.SALES_SUMMARY, new SalesReportRequest(from, to, null));
+
+            respondAsync(req, resp, requestProcessor.submitRequest(clientRequest),
+                (summary, response) -> JsonUtil.toJson(summary, response.getWriter()));
+
+        } else if ("series".equals(action)) {
+            // ?action=series&from=D&to=D&granularity=HOUR|DAY|MONTH
+            String granularity = req.getParameter("granularity");
+            granularity = granularity == null || granularity.isEmpty() ? "DAY" : granularity.toUpperCase();
+
+            long points;
+            switch (granularity) {
+                case "HOUR" -> points = (ChronoUnit.DAYS.between(from, to) + 1) * 24;
+                case "DAY" -> points = ChronoUnit.DAYS.between(from, to) + 1;
+                case "MONTH" -> points = ChronoUnit.MONTHS.between(from.withDayOfMonth(1), to.withDayOfMonth(1)) + 1;
+                default -> {
+                    writeError(resp, HttpServletResponse.SC_BAD_REQUEST, "granularity must be HOUR, DAY or MONTH");
+                    return;
+                }
+            }
+            if (points > maxSeriesPoints) {
+                writeError(resp, HttpServletResponse.SC_BAD_REQUEST,
+                    "Range too long: " + points + " points, at most " + maxSeriesPoints);
+                return;
+            }
+
+            ClientRequest<List<SalesPointDto>> clientRequest = new ClientRequest<>(
+                ClientRequest.RequestType.SALES_SERIES, new SalesReportRequest(from, to, granularity));
+
+            respondAsync(req, resp, requestProcessor.submitRequest(clientRequest),
+                (series, response) -> JsonUtil.writeArray(series, response.getWriter()));
+
+        } else if ("topItems".equals(action)) {
+            // ?action=topItems&window=today|week&limit=N&exact=true
+            String window = req.getParameter("window");
+            if (window == null || window.isEmpty() || "today".equalsIgnoreCase(window)) {
+                window = "DAY";
+            } else if ("week".equalsIgnoreCase(window)) {
+                window = "WEEK";
+            } else {
+                writeError(resp, HttpServletResponse.SC_BAD_REQUEST, "window must be today or week");
+                return;
+            }
+            int limit;
+            try {
+                limit = positiveIntParameter(req, "limit", defaultTopSellers, maxTopSellers);
+            } catch (IllegalArgumentException e) {
+                writeError(resp, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+                return;
+            }
+            boolean exact = Boolean.parseBoolean(req.getParameter("exact"));
+
+            ClientRequest<List<TopItemDto>> clientRequest = new ClientRequest<>(
+                ClientRequest.RequestType.TOP_SELLERS, new TopSellersRequest(window, limit, exact));
+
+            respondAsync(req, resp, requestProcessor.submitRequest(clientRequest),
+                (top, response) -> JsonUtil.writeArray(top, response.getWriter()));
+
+        } else if ("breakdown".equals(action)) {
+            // ?action=breakdown&from=D&to=D&groupBy=item|category|cashier|day
+            //   [&item=CODE][&cashier=ID][&category=CODE][&limit=N]
+            String groupBy = req.getParameter("groupBy");
+            groupBy = groupBy == null || groupBy.isEmpty() ? "ITEM" : groupBy.toUpperCase();
+            if (!List.of("ITEM", "CATEGORY", "CASHIER", "DAY").contains(groupBy)) {
+                writeError(resp, HttpServletResponse.SC_BAD_REQUEST,
+                    "groupBy must be item, category, cashier or day");
+                return;
+            }
+            if ("DAY".equals(groupBy) && ChronoUnit.DAYS.between(from, to) + 1 > maxSeriesPoints) {
+                writeError(resp, HttpServletResponse.SC_BAD_REQUEST,
+                    "Range too long, at most " + maxSeriesPoints + " days");
+                return;
+            }
+            int limit;
+            try {
+                limit = positiveIntParameter(req, "limit", defaultBreakdownLimit, maxBreakdownLimit);
+            } catch (IllegalArgumentException e) {
+                writeError(resp, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+                return;
+            }
+
+            ClientRequest<List<SalesBreakdownDto>> clientRequest = new ClientRequest<>(
+                ClientRequest.RequestType.SALES_BREAKDOWN,
+                new SalesBreakdownRequest(from, to, groupBy,
+                    optionalParameter(req, "item"), optionalParameter(req, "cashier"),
+                    optionalParameter(req, "category"), limit));
+
+            respondAsync(req, resp, requestProcessor.submitRequest(clientRequest),
+                (breakdown, response) -> JsonUtil.writeArray(breakdown, response.getWriter()));
+
+        } else {
+            writeError(resp, HttpServletResponse.SC_BAD_REQUEST, "Unknown action: " + action);
+        }
+    }
+
+    private static String optionalParameter(HttpServletRequest req, String name) {
+        String value = req.getParameter(name);
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static LocalDate dateParameter(HttpServletRequest req, String name, LocalDate defaultValue) {
+        String value = req.getParameter(name);
+        return value == null || value.isEmpty() ? defaultValue : LocalDate.parse(value);
+    }
+}
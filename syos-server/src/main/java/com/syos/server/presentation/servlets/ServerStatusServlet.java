@@ -27,6 +27,6 @@ public class ServerStatusServlet extends HttpServlet {
         ServerMetrics metrics = requestProcessor.getMetrics();
         
         resp.setContentType("application/json");
-        resp.getWriter().write(JsonUtil.toJson(metrics));
+        JsonUtil.toJson(metrics, resp.getWriter());
     }
 }
\ No newline at end of file
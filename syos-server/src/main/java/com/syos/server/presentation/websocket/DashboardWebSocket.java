@@ -2,19 +2,25 @@ package com.syos.server.presentation.websocket;
 
 import javax.websocket.*;
 import javax.websocket.server.ServerEndpoint;
-import java.io.IOException;
-import java.util.Set;
-import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @ServerEndpoint("/ws/dashboard")
 public class DashboardWebSocket {
 
-    // Thread-safe set to store all connected clients (dashboards)
-    private static final Set<Session> sessions = new CopyOnWriteArraySet<>();
+    // Messages waiting for one client before new ones are dropped
+    private static final int MAX_PENDING = 1000;
+
+    // Connected clients (dashboards), each with its own send queue
+    private static final Map<Session, Outbox> sessions = new ConcurrentHashMap<>();
 
     @OnOpen
     public void onOpen(Session session) {
-        sessions.add(session);
+        sessions.put(session, new Outbox(session));
         System.out.println("WebSocket Connected: " + session.getId());
     }
 
@@ -32,18 +38,73 @@ public class DashboardWebSocket {
 
     /**
      * Call this method from your Servlets when data changes.
-     * It sends a message to all connected clients.
+     * It queues a message for all connected clients and never blocks, so it
+     * is safe from request threads and from background threads such as the
+     * bill writer.
      */
     public static void broadcast(String message) {
         System.out.println("Broadcasting update: " + message);
-        for (Session session : sessions) {
-            if (session.isOpen()) {
+        for (Outbox outbox : sessions.values()) {
+            outbox.send(message);
+        }
+    }
+
+    /**
+     * Sends one client's messages one at a time, in order. Tomcat refuses
+     * a send while another one to the same session is still being written.
+     */
+    private static final class Outbox {
+        private final Session session;
+        private final Queue<String> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        Outbox(Session session) {
+            this.session = session;
+        }
+
+        void send(String message) {
+            if (size.incrementAndGet() > MAX_PENDING) {
+                size.decrementAndGet();
+                System.err.println("⚠ WebSocket " + session.getId() + " is not reading, dropped: " + message);
+                return;
+            }
+            pending.add(message);
+            drain();
+        }
+
+        private void drain() {
+            while (sending.compareAndSet(false, true)) {
+                String next = pending.poll();
+                if (next == null) {
+                    sending.set(false);
+                    // A message queued after the poll but before the reset is sent by this loop
+                    if (pending.isEmpty()) {
+                        return;
+                    }
+                    continue;
+                }
+                size.decrementAndGet();
+
+                if (!session.isOpen()) {
+                    sending.set(false);
+                    continue;
+                }
                 try {
-                    session.getBasicRemote().sendText(message);
-                } catch (IOException e) {
-                    e.printStackTrace();
+                    session.getAsyncRemote().sendText(next, result -> {
+                        if (!result.isOK()) {
+                            System.err.println("WebSocket send failed for " + session.getId() + ": " +
+                                               result.getException().getMessage());
+                        }
+                        sending.set(false);
+                        drain();
+                    });
+                    return;
+                } catch (RuntimeException e) {
+                    System.err.println("WebSocket send failed for " + session.getId() + ": " + e.getMessage());
+                    sending.set(false);
                 }
             }
         }
     }
-}
\ No newline at end of file
+}
@@ -1,4 +1,7 @@
--- Items table
+-- Reference copy of the schema built by the syos-database migrations
+-- (syos-database/src/main/resources/db/migration, applied in index.txt order).
+-- Change the schema by adding a migration there, then mirror it here.
+
 CREATE TABLE IF NOT EXISTS items (
     item_code VARCHAR(20) PRIMARY KEY,
     name VARCHAR(100) NOT NULL,
@@ -6,10 +9,10 @@ CREATE TABLE IF NOT EXISTS items (
     price DECIMAL(10, 2) NOT NULL,
     category_code VARCHAR(20),
     current_stock INT NOT NULL DEFAULT 0,
-    reorder_level INT NOT NULL DEFAULT 10
+    reorder_level INT NOT NULL DEFAULT 10,
+    stock_gap INT GENERATED ALWAYS AS (current_stock - reorder_level)
 );
 
--- Customers table
 CREATE TABLE IF NOT EXISTS customers (
     customer_id VARCHAR(20) PRIMARY KEY,
     name VARCHAR(100) NOT NULL,
@@ -18,7 +21,6 @@ CREATE TABLE IF NOT EXISTS customers (
     address VARCHAR(255)
 );
 
--- Bills table
 CREATE TABLE IF NOT EXISTS bills (
     bill_id VARCHAR(30) PRIMARY KEY,
     customer_id VARCHAR(20) NOT NULL,
@@ -27,11 +29,9 @@ CREATE TABLE IF NOT EXISTS bills (
     subtotal DECIMAL(10, 2) NOT NULL,
     tax DECIMAL(10, 2) NOT NULL,
     total DECIMAL(10, 2) NOT NULL,
-    timestamp TIMESTAMP NOT NULL,
-    FOREIGN KEY (customer_id) REFERENCES customers(customer_id)
+    timestamp TIMESTAMP NOT NULL
 );
 
--- Bill items table
 CREATE TABLE IF NOT EXISTS bill_items (
     id INT AUTO_INCREMENT PRIMARY KEY,
     bill_id VARCHAR(30) NOT NULL,
@@ -39,13 +39,35 @@ CREATE TABLE IF NOT EXISTS bill_items (
     item_name VARCHAR(100) NOT NULL,
     quantity INT NOT NULL,
     unit_price DECIMAL(10, 2) NOT NULL,
-    subtotal DECIMAL(10, 2) NOT NULL,
-    FOREIGN KEY (bill_id) REFERENCES bills(bill_id),
-    FOREIGN KEY (item_code) REFERENCES items(item_code)
+    subtotal DECIMAL(10, 2) NOT NULL
+);
+
+-- Change log folded into items.current_stock by the server
+CREATE TABLE IF NOT EXISTS stock_movements (
+    movement_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    item_code VARCHAR(20) NOT NULL,
+    delta INT NOT NULL,
+    reference VARCHAR(30),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
 
+-- Bill history and sales reports: range scans and keyset pages by time
+CREATE INDEX IF NOT EXISTS idx_bills_timestamp ON bills (timestamp, bill_id);
+
+-- A customer's bills, newest first
+CREATE INDEX IF NOT EXISTS idx_bills_customer ON bills (customer_id, timestamp);
+
+-- Lines of a page of bills, and the bill_items/bills join in reports
+CREATE INDEX IF NOT EXISTS idx_bill_items_bill ON bill_items (bill_id);
+
+-- Catalog pages within one category, in item code order
+CREATE INDEX IF NOT EXISTS idx_items_category ON items (category_code, item_code);
+
+-- Low-stock lookups: stock_gap <= 0 seeks on the index
+CREATE INDEX IF NOT EXISTS idx_items_stock_gap ON items (stock_gap);
+
 -- Sample data
-INSERT INTO items VALUES 
+INSERT INTO items (item_code, name, description, price, category_code, current_stock, reorder_level) VALUES
 ('ITEM-001', 'Laptop', 'HP Laptop 15-inch', 750.00, 'ELECTRONICS', 25, 5),
 ('ITEM-002', 'Mouse', 'Wireless Mouse', 15.50, 'ACCESSORIES', 100, 20),
 ('ITEM-003', 'Keyboard', 'Mechanical Keyboard', 89.99, 'ACCESSORIES', 50, 10),
@@ -0,0 +1,117 @@
+package com.syos.server.business;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockLedgerTest {
+
+    @Test
+    void cartIsReservedWhenEveryLineIsCovered() {
+        StockLedger ledger = new StockLedger();
+        ledger.seed("A", 5);
+        ledger.seed("B", 2);
+
+        assertNull(ledger.reserve(Map.of("A", 5, "B", 2)));
+        assertEquals("A", ledger.reserve(Map.of("A", 1)));
+    }
+
+    @Test
+    void shortLineRefusesTheWholeCart() {
+        StockLedger ledger = new StockLedger();
+        ledger.seed("A", 5);
+        ledger.seed("B", 1);
+
+        assertEquals("B", ledger.reserve(Map.of("A", 2, "B", 2)));
+        // Nothing was kept from A
+        assertNull(ledger.reserve(Map.of("A", 5)));
+    }
+
+    @Test
+    void untrackedItemIsShort() {
+        StockLedger ledger = new StockLedger();
+        assertEquals("X", ledger.reserve(Map.of("X", 1)));
+    }
+
+    @Test
+    void nonPositiveQuantityIsRejected() {
+        StockLedger ledger = new StockLedger();
+        ledger.seed("A", 5);
+
+        assertThrows(IllegalArgumentException.class, () -> ledger.reserve(Map.of("A", 0)));
+        assertThrows(IllegalArgumentException.class, () -> ledger.reserve(Map.of("A", -3)));
+        assertNull(ledger.reserve(Map.of("A", 5)));
+    }
+
+    @Test
+    void releasedStockCanBeSoldAgainButCommittedCannot() {
+        StockLedger ledger = new StockLedger();
+        ledger.seed("A", 3);
+
+        assertNull(ledger.reserve(Map.of("A", 3)));
+        ledger.release(Map.of("A", 3));
+        assertNull(ledger.reserve(Map.of("A", 3)));
+        ledger.commit(Map.of("A", 3));
+        assertEquals("A", ledger.reserve(Map.of("A", 1)));
+    }
+
+    @Test
+    void seedDoesNotResetATrackedItem() {
+        StockLedger ledger = new StockLedger();
+        ledger.seed("A", 3);
+        assertNull(ledger.reserve(Map.of("A", 2)));
+
+        ledger.seed("A", 3);
+        assertEquals("A", ledger.reserve(Map.of("A", 2)));
+    }
+
+    @Test
+    void addIncreasesTrackedStockAndIgnoresUntrackedItems() {
+        StockLedger ledger = new StockLedger();
+        ledger.seed("A", 1);
+        ledger.add("A", 4);
+        ledger.add("X", 4);
+
+        assertNull(ledger.reserve(Map.of("A", 5)));
+        assertEquals("X", ledger.reserve(Map.of("X", 1)));
+    }
+
+    @Test
+    void concurrentCheckoutsNeverOversell() throws InterruptedException {
+        StockLedger ledger = new StockLedger();
+        ledger.seed("A", 100);
+        ledger.seed("B", 1_000);
+        AtomicInteger sold = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 400; i++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (ledger.reserve(Map.of("A", 1, "B", 2)) == null) {
+                    sold.incrementAndGet();
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(100, sold.get());
+        assertEquals("A", ledger.reserve(Map.of("A", 1)));
+        // Refused carts gave their B units back
+        assertNull(ledger.reserve(Map.of("B", 800)));
+        assertEquals("B", ledger.reserve(Map.of("B", 1)));
+    }
+}
@@ -0,0 +1,138 @@
+package com.syos.server.business.reporting;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SalesFactStoreTest {
+
+    private static final ZoneId UTC = ZoneId.of("UTC");
+    private static final Map<String, String> CATEGORIES = Map.of("APL", "FRUIT", "BAN", "FRUIT", "BRD", "BAKERY");
+
+    private final SalesFactStore store = new SalesFactStore(CATEGORIES::get);
+
+    @Test
+    void groupsByItemCategoryAndCashier() {
+        store.append(100, "C1", "APL", 2, 200);
+        store.append(110, "C2", "BAN", 1, 50);
+        store.append(120, "C1", "BRD", 1, 300);
+        store.append(130, "C2", "XYZ", 1, 10);
+
+        assertEquals(Map.of("BRD", 300L, "APL", 200L, "BAN", 50L, "XYZ", 10L),
+            amounts(query(0, 1000, null, null, null, SalesFactStore.GroupBy.ITEM)));
+        List<SalesFactStore.Group> byCategory = query(0, 1000, null, null, null, SalesFactStore.GroupBy.CATEGORY);
+        assertEquals(List.of("BAKERY", "FRUIT", "UNKNOWN"), keys(byCategory));
+        assertEquals(3, byCategory.get(1).getQuantity());
+        assertEquals(2, byCategory.get(1).getLines());
+        assertEquals(Map.of("C1", 500L, "C2", 60L),
+            amounts(query(0, 1000, null, null, null, SalesFactStore.GroupBy.CASHIER)));
+    }
+
+    @Test
+    void filtersNarrowTheLinesAndTheTimeRangeIsHalfOpen() {
+        store.append(100, "C1", "APL", 2, 200);
+        store.append(200, "C2", "APL", 1, 100);
+        store.append(300, "C1", "BAN", 1, 50);
+
+        assertEquals(Map.of("APL", 200L),
+            amounts(query(100, 200, null, null, null, SalesFactStore.GroupBy.ITEM)));
+        assertEquals(Map.of("C2", 100L),
+            amounts(query(0, 1000, "APL", "C2", null, SalesFactStore.GroupBy.CASHIER)));
+        assertEquals(Map.of("APL", 300L, "BAN", 50L),
+            amounts(query(0, 1000, null, null, "FRUIT", SalesFactStore.GroupBy.ITEM)));
+        assertTrue(query(0, 1000, "NOPE", null, null, SalesFactStore.GroupBy.ITEM).isEmpty());
+    }
+
+    @Test
+    void rollsOverIntoNewSegmentsWithoutLosingRows() {
+        int rows = 2 * 65_536 + 10;
+        for (int i = 0; i < rows; i++) {
+            store.append(i, "C1", i % 2 == 0 ? "APL" : "BAN", 1, 5);
+        }
+
+        assertEquals(rows, store.getRows());
+        assertEquals(3, store.getSegments());
+        List<SalesFactStore.Group> groups = query(0, rows, null, null, null, SalesFactStore.GroupBy.CATEGORY);
+        assertEquals(1, groups.size());
+        assertEquals(rows, groups.get(0).getLines());
+        assertEquals(5L * rows, groups.get(0).getAmountCents());
+        // A range inside the second segment only
+        assertEquals(100, query(70_000, 70_100, null, null, null, SalesFactStore.GroupBy.CATEGORY)
+            .get(0).getQuantity());
+    }
+
+    @Test
+    void retentionDropsOldSegmentsAndRejectsEarlierQueries() {
+        for (int i = 0; i < 65_536; i++) {
+            store.append(1_000, "C1", "APL", 1, 1);
+        }
+        store.append(2_000, "C1", "BAN", 1, 7);
+
+        store.retainFrom(1_500);
+
+        assertEquals(1, store.getSegments());
+        assertEquals(1, store.getRows());
+        assertEquals(1_500, store.getRetainedFrom());
+        assertThrows(IllegalArgumentException.class,
+            () -> query(1_000, 3_000, null, null, null, SalesFactStore.GroupBy.ITEM));
+        assertEquals(Map.of("BAN", 7L), amounts(query(1_500, 3_000, null, null, null, SalesFactStore.GroupBy.ITEM)));
+
+        // The retained start never moves back
+        store.retainFrom(500);
+        assertEquals(1_500, store.getRetainedFrom());
+    }
+
+    @Test
+    void retentionKeepsASegmentWithAnyRecentLine() {
+        store.append(1_000, "C1", "APL", 1, 1);
+        store.append(2_000, "C1", "BAN", 1, 1);
+
+        store.retainFrom(1_500);
+
+        assertEquals(1, store.getSegments());
+        assertEquals(2, store.getRows());
+    }
+
+    @Test
+    void dayGroupsFollowLocalDatesAcrossDaylightSaving() {
+        ZoneId london = ZoneId.of("Europe/London");
+        long from = epoch(LocalDateTime.of(2024, 3, 30, 0, 0), london);
+        long to = epoch(LocalDateTime.of(2024, 4, 2, 0, 0), london);
+        store.append(epoch(LocalDateTime.of(2024, 3, 30, 23, 30), london), "C1", "APL", 1, 10);
+        // 23:30 on the 23-hour day, which is 22:30 UTC
+        store.append(epoch(LocalDateTime.of(2024, 3, 31, 23, 30), london), "C1", "APL", 1, 20);
+        // 00:30 the next day is still the 31st in UTC, but belongs to the 1st locally
+        store.append(epoch(LocalDateTime.of(2024, 4, 1, 0, 30), london), "C1", "APL", 1, 40);
+
+        List<SalesFactStore.Group> days = store.aggregate(new SalesFactStore.Query(
+            from, to, null, null, null, SalesFactStore.GroupBy.DAY, london));
+
+        assertEquals(List.of("2024-03-30", "2024-03-31", "2024-04-01"), keys(days));
+        assertEquals(10, days.get(0).getAmountCents());
+        assertEquals(20, days.get(1).getAmountCents());
+        assertEquals(40, days.get(2).getAmountCents());
+    }
+
+    private List<SalesFactStore.Group> query(long from, long to, String item, String cashier,
+                                             String category, SalesFactStore.GroupBy groupBy) {
+        return store.aggregate(new SalesFactStore.Query(from, to, item, cashier, category, groupBy, UTC));
+    }
+
+    private static long epoch(LocalDateTime local, ZoneId zone) {
+        return local.atZone(zone).toEpochSecond();
+    }
+
+    private static List<String> keys(List<SalesFactStore.Group> groups) {
+        return groups.stream().map(SalesFactStore.Group::getKey).collect(Collectors.toList());
+    }
+
+    private static Map<String, Long> amounts(List<SalesFactStore.Group> groups) {
+        return groups.stream().collect(Collectors.toMap(SalesFactStore.Group::getKey, SalesFactStore.Group::getAmountCents));
+    }
+}
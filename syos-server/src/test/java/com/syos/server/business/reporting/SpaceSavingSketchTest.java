@@ -0,0 +1,98 @@
+package com.syos.server.business.reporting;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpaceSavingSketchTest {
+
+    @Test
+    void countsAreExactWhileEveryItemHasACounter() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(3);
+        sketch.add("A", "Apple", 5, 500);
+        sketch.add("B", "Bread", 2, 400);
+        sketch.add("A", "Apple", 1, 100);
+
+        List<SpaceSavingSketch.Entry> top = sketch.top(10);
+        assertEquals(List.of("A", "B"), codes(top));
+        assertEquals(6, top.get(0).getCount());
+        assertEquals(0, top.get(0).getError());
+        assertEquals(600, top.get(0).getRevenueCents());
+        assertEquals(8, sketch.getTotal());
+    }
+
+    @Test
+    void newItemTakesOverTheSmallestCounter() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(2);
+        sketch.add("A", "Apple", 5, 500);
+        sketch.add("B", "Bread", 3, 300);
+        sketch.add("C", "Cheese", 1, 100);
+
+        List<SpaceSavingSketch.Entry> top = sketch.top(10);
+        assertEquals(List.of("A", "C"), codes(top));
+        SpaceSavingSketch.Entry cheese = top.get(1);
+        assertEquals(4, cheese.getCount());
+        assertEquals(3, cheese.getError());
+        // Revenue only counts sales since the counter was taken over
+        assertEquals(100, cheese.getRevenueCents());
+        assertEquals(2, sketch.size());
+    }
+
+    @Test
+    void topIsLimitedAndHighestFirst() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(10);
+        sketch.add("A", "Apple", 1, 0);
+        sketch.add("B", "Bread", 3, 0);
+        sketch.add("C", "Cheese", 2, 0);
+
+        assertEquals(List.of("B", "C"), codes(sketch.top(2)));
+    }
+
+    @Test
+    void estimatesStayWithinTheirErrorOnASkewedStream() {
+        int capacity = 20;
+        SpaceSavingSketch sketch = new SpaceSavingSketch(capacity);
+        Map<String, Long> actual = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 50_000; i++) {
+            // Roughly Zipfian over 500 items, with weighted quantities
+            String item = "ITEM-" + (int) Math.floor(Math.pow(500, random.nextDouble()));
+            long quantity = 1 + random.nextInt(3);
+            sketch.add(item, item, quantity, 0);
+            actual.merge(item, quantity, Long::sum);
+        }
+
+        long total = sketch.getTotal();
+        assertEquals(actual.values().stream().mapToLong(Long::longValue).sum(), total);
+
+        Map<String, SpaceSavingSketch.Entry> kept = sketch.top(capacity).stream()
+            .collect(Collectors.toMap(SpaceSavingSketch.Entry::getItemCode, entry -> entry));
+        for (SpaceSavingSketch.Entry entry : kept.values()) {
+            long truth = actual.get(entry.getItemCode());
+            assertTrue(entry.getCount() >= truth, "undercount for " + entry.getItemCode());
+            assertTrue(entry.getCount() - entry.getError() <= truth, "error too small for " + entry.getItemCode());
+            assertTrue(entry.getError() <= total / capacity, "error above total / capacity");
+        }
+        actual.forEach((item, truth) -> {
+            if (truth > total / capacity) {
+                assertTrue(kept.containsKey(item), "heavy hitter " + item + " lost");
+            }
+        });
+    }
+
+    @Test
+    void capacityMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new SpaceSavingSketch(0));
+    }
+
+    private static List<String> codes(List<SpaceSavingSketch.Entry> entries) {
+        return entries.stream().map(SpaceSavingSketch.Entry::getItemCode).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,127 @@
+package com.syos.server.concurrency;
+
+import com.syos.server.concurrency.ClientRequest.RequestType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LaneSchedulerTest {
+
+    @BeforeEach
+    void configure() {
+        System.setProperty("syos.lanes.weight.CHECKOUT", "3");
+        System.setProperty("syos.lanes.weight.GET_ALL_ITEMS", "1");
+        System.setProperty("syos.lanes.weight.SALES_BREAKDOWN", "1");
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty("syos.lanes.weight.CHECKOUT");
+        System.clearProperty("syos.lanes.weight.GET_ALL_ITEMS");
+        System.clearProperty("syos.lanes.weight.SALES_BREAKDOWN");
+    }
+
+    @Test
+    void eachRoundServesLanesUpToTheirWeightHeaviestFirst() throws InterruptedException {
+        LaneScheduler scheduler = new LaneScheduler(100);
+        enqueue(scheduler, RequestType.CHECKOUT, "c", 6);
+        enqueue(scheduler, RequestType.GET_ALL_ITEMS, "a", 3);
+        enqueue(scheduler, RequestType.SALES_BREAKDOWN, "b", 2);
+
+        assertEquals(List.of(
+            "c1", "c2", "c3", "a1", "b1",
+            "c4", "c5", "c6", "a2", "b2",
+            "a3"), drain(scheduler));
+    }
+
+    @Test
+    void lightLaneIsNotStarvedByABacklogOfCheckouts() throws InterruptedException {
+        LaneScheduler scheduler = new LaneScheduler(1000);
+        enqueue(scheduler, RequestType.CHECKOUT, "c", 500);
+        enqueue(scheduler, RequestType.SALES_BREAKDOWN, "b", 1);
+
+        List<String> served = drain(scheduler);
+        assertEquals(3, served.indexOf("b1"));
+    }
+
+    @Test
+    void requestsWithinALaneKeepTheirOrder() throws InterruptedException {
+        LaneScheduler scheduler = new LaneScheduler(100);
+        enqueue(scheduler, RequestType.GET_ITEM, "g", 5);
+
+        assertEquals(List.of("g1", "g2", "g3", "g4", "g5"), drain(scheduler));
+    }
+
+    @Test
+    void fullLaneRejectsWithoutAffectingOtherLanes() throws InterruptedException {
+        LaneScheduler scheduler = new LaneScheduler(2);
+        enqueue(scheduler, RequestType.GET_ALL_ITEMS, "a", 2);
+
+        assertFalse(scheduler.offer(request(RequestType.GET_ALL_ITEMS, "a3"), 0, TimeUnit.MILLISECONDS));
+        assertTrue(scheduler.offer(request(RequestType.CHECKOUT, "c1"), 0, TimeUnit.MILLISECONDS));
+        assertEquals(3, scheduler.size());
+
+        LaneStats stats = stats(scheduler, RequestType.GET_ALL_ITEMS);
+        assertEquals(2, stats.getDepth());
+        assertEquals(1, stats.getRejected());
+    }
+
+    @Test
+    void blockedOfferProceedsOnceItsLaneHasSpace() throws Exception {
+        LaneScheduler scheduler = new LaneScheduler(1);
+        enqueue(scheduler, RequestType.GET_ITEM, "g", 1);
+
+        boolean[] accepted = new boolean[1];
+        Thread producer = new Thread(() -> {
+            try {
+                accepted[0] = scheduler.offer(request(RequestType.GET_ITEM, "g2"), 5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+
+        assertEquals("g1", scheduler.take().getPayload());
+        producer.join(5000);
+        assertTrue(accepted[0]);
+        assertEquals("g2", scheduler.poll(1, TimeUnit.SECONDS).getPayload());
+    }
+
+    @Test
+    void pollReturnsNullWhenNothingArrives() throws InterruptedException {
+        assertNull(new LaneScheduler(10).poll(10, TimeUnit.MILLISECONDS));
+    }
+
+    private static void enqueue(LaneScheduler scheduler, RequestType type, String prefix, int count)
+            throws InterruptedException {
+        for (int i = 1; i <= count; i++) {
+            assertTrue(scheduler.offer(request(type, prefix + i), 0, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    private static ClientRequest<Void> request(RequestType type, String payload) {
+        return new ClientRequest<>(type, payload);
+    }
+
+    private static List<String> drain(LaneScheduler scheduler) throws InterruptedException {
+        List<String> served = new ArrayList<>();
+        ClientRequest<?> next;
+        while ((next = scheduler.poll(0, TimeUnit.MILLISECONDS)) != null) {
+            served.add((String) next.getPayload());
+        }
+        return served;
+    }
+
+    private static LaneStats stats(LaneScheduler scheduler, RequestType type) {
+        return scheduler.getStats().stream()
+            .filter(lane -> lane.getLane().equals(type.name()))
+            .findFirst()
+            .orElseThrow();
+    }
+}
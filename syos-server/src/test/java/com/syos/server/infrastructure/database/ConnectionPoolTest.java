@@ -0,0 +1,162 @@
+package com.syos.server.infrastructure.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionPoolTest {
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void configure() {
+        System.setProperty("syos.db.pool.maxSize", "1");
+        System.setProperty("syos.db.pool.minIdle", "0");
+        System.setProperty("syos.db.pool.maxWaitMs", "100");
+        System.setProperty("syos.db.pool.leakDetectionMs", "0");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+        System.clearProperty("syos.db.pool.maxSize");
+        System.clearProperty("syos.db.pool.minIdle");
+        System.clearProperty("syos.db.pool.maxWaitMs");
+        System.clearProperty("syos.db.pool.leakDetectionMs");
+    }
+
+    private ConnectionPool newPool() {
+        pool = new ConnectionPool("jdbc:h2:mem:pool-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        return pool;
+    }
+
+    @Test
+    void borrowTimesOutWhenEveryConnectionIsHeld() throws SQLException {
+        newPool();
+        try (Connection held = pool.getConnection()) {
+            assertThrows(SQLException.class, pool::getConnection);
+            assertEquals(1, pool.getStats().getBorrowTimeouts());
+        }
+    }
+
+    @Test
+    void closedConnectionIsReusedNotReopened() throws SQLException {
+        newPool();
+        pool.getConnection().close();
+        pool.getConnection().close();
+
+        ConnectionPoolStats stats = pool.getStats();
+        assertEquals(1, stats.getConnectionsCreated());
+        assertEquals(2, stats.getTotalBorrows());
+        assertEquals(0, stats.getActiveConnections());
+        assertEquals(1, stats.getIdleConnections());
+    }
+
+    @Test
+    void closingAHandleTwiceReturnsTheConnectionOnce() throws SQLException {
+        newPool();
+        Connection connection = pool.getConnection();
+        connection.close();
+        connection.close();
+
+        assertTrue(connection.isClosed());
+        assertThrows(SQLException.class, connection::createStatement);
+
+        // A second release would have freed a permit for a connection that does not exist
+        try (Connection next = pool.getConnection()) {
+            assertThrows(SQLException.class, pool::getConnection);
+        }
+    }
+
+    @Test
+    void uncommittedWorkIsRolledBackOnReturn() throws SQLException {
+        newPool();
+        try (Connection connection = pool.getConnection();
+             Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE t (id INT)");
+            connection.setAutoCommit(false);
+            stmt.execute("INSERT INTO t VALUES (1)");
+        }
+
+        try (Connection connection = pool.getConnection();
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM t")) {
+            assertTrue(connection.getAutoCommit());
+            rs.next();
+            assertEquals(0, rs.getInt(1));
+        }
+    }
+
+    @Test
+    void waitersAreServedInArrivalOrder() throws Exception {
+        System.setProperty("syos.db.pool.maxWaitMs", "5000");
+        newPool();
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        Connection held = pool.getConnection();
+        Thread first = borrower("first", order);
+        awaitWaiting(1);
+        Thread second = borrower("second", order);
+        awaitWaiting(2);
+
+        held.close();
+        first.join(5000);
+        second.join(5000);
+        assertEquals(List.of("first", "second"), order);
+    }
+
+    private Thread borrower(String name, List<String> order) {
+        Thread thread = new Thread(() -> {
+            try (Connection connection = pool.getConnection()) {
+                order.add(name);
+                Thread.sleep(20);
+            } catch (SQLException | InterruptedException e) {
+                order.add(name + " failed: " + e.getMessage());
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private void awaitWaiting(int threads) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (pool.getStats().getWaitingThreads() < threads) {
+            assertTrue(System.currentTimeMillis() < deadline, "borrower never queued");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void connectionHeldTooLongIsReportedOnce() throws Exception {
+        System.setProperty("syos.db.pool.leakDetectionMs", "10");
+        newPool();
+        try (Connection connection = pool.getConnection()) {
+            Thread.sleep(30);
+            pool.housekeep();
+            pool.housekeep();
+            assertEquals(1, pool.getStats().getLeaksDetected());
+        }
+    }
+
+    @Test
+    void leakDetectionOffReportsNothing() throws Exception {
+        newPool();
+        try (Connection connection = pool.getConnection()) {
+            Thread.sleep(30);
+            pool.housekeep();
+            assertEquals(0, pool.getStats().getLeaksDetected());
+        }
+    }
+}
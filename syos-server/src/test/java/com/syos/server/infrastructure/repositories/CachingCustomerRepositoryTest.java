@@ -0,0 +1,187 @@
+package com.syos.server.infrastructure.repositories;
+
+import com.syos.server.domain.entities.Customer;
+import com.syos.server.domain.repositories.ICustomerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingCustomerRepositoryTest {
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty("syos.customers.cache.maxSize");
+        System.clearProperty("syos.customers.cache.ttlMs");
+        System.clearProperty("syos.customers.cache.negativeTtlMs");
+    }
+
+    @Test
+    void repeatedLookupIsServedFromTheCache() {
+        CountingRepository database = new CountingRepository();
+        database.customers.put("C1", customer("C1", "Ann"));
+        CachingCustomerRepository cache = new CachingCustomerRepository(database);
+
+        assertEquals("Ann", cache.findById("C1").orElseThrow().getName());
+        assertEquals("Ann", cache.findById("C1").orElseThrow().getName());
+        assertEquals(1, database.lookups.get());
+    }
+
+    @Test
+    void callerCannotChangeTheCachedCustomer() {
+        CountingRepository database = new CountingRepository();
+        database.customers.put("C1", customer("C1", "Ann"));
+        CachingCustomerRepository cache = new CachingCustomerRepository(database);
+
+        cache.findById("C1").orElseThrow().setName("Changed");
+        cache.findById("C1").orElseThrow().setName("Changed");
+        assertEquals("Ann", cache.findById("C1").orElseThrow().getName());
+    }
+
+    @Test
+    void entryIsReloadedAfterItsTtl() throws InterruptedException {
+        System.setProperty("syos.customers.cache.ttlMs", "20");
+        CountingRepository database = new CountingRepository();
+        database.customers.put("C1", customer("C1", "Ann"));
+        CachingCustomerRepository cache = new CachingCustomerRepository(database);
+
+        cache.findById("C1");
+        Thread.sleep(40);
+        cache.findById("C1");
+        assertEquals(2, database.lookups.get());
+    }
+
+    @Test
+    void unknownIdIsCachedUntilItsShorterTtl() throws InterruptedException {
+        System.setProperty("syos.customers.cache.negativeTtlMs", "20");
+        CountingRepository database = new CountingRepository();
+        CachingCustomerRepository cache = new CachingCustomerRepository(database);
+
+        assertTrue(cache.findById("NOPE").isEmpty());
+        assertTrue(cache.findById("NOPE").isEmpty());
+        assertEquals(1, database.lookups.get());
+
+        Thread.sleep(40);
+        assertTrue(cache.findById("NOPE").isEmpty());
+        assertEquals(2, database.lookups.get());
+    }
+
+    @Test
+    void savingACustomerDropsItsNegativeEntry() {
+        CountingRepository database = new CountingRepository();
+        CachingCustomerRepository cache = new CachingCustomerRepository(database);
+
+        assertTrue(cache.findById("C1").isEmpty());
+        cache.save(customer("C1", "Ann"));
+        assertEquals("Ann", cache.findById("C1").orElseThrow().getName());
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        System.setProperty("syos.customers.cache.maxSize", "2");
+        CountingRepository database = new CountingRepository();
+        database.customers.put("C1", customer("C1", "Ann"));
+        database.customers.put("C2", customer("C2", "Ben"));
+        database.customers.put("C3", customer("C3", "Cat"));
+        CachingCustomerRepository cache = new CachingCustomerRepository(database);
+
+        cache.findById("C1");
+        cache.findById("C2");
+        cache.findById("C1");   // C2 is now the least recently used
+        cache.findById("C3");
+        assertEquals(3, database.lookups.get());
+
+        cache.findById("C1");
+        assertEquals(3, database.lookups.get());
+        cache.findById("C2");
+        assertEquals(4, database.lookups.get());
+    }
+
+    @Test
+    void loadThatRacedWithAnUpdateIsNotCached() throws Exception {
+        CountingRepository database = new CountingRepository();
+        database.customers.put("C1", customer("C1", "Old"));
+        CachingCustomerRepository cache = new CachingCustomerRepository(database);
+
+        // The reader has fetched the old row but not cached it yet
+        CountDownLatch loaded = new CountDownLatch(1);
+        CountDownLatch updated = new CountDownLatch(1);
+        database.afterLookup = () -> {
+            loaded.countDown();
+            await(updated);
+        };
+        AtomicReference<String> readerSaw = new AtomicReference<>();
+        Thread reader = new Thread(() -> readerSaw.set(cache.findById("C1").orElseThrow().getName()));
+        reader.start();
+
+        assertTrue(loaded.await(5, TimeUnit.SECONDS));
+        database.afterLookup = () -> {};
+        cache.update(customer("C1", "New"));
+        updated.countDown();
+        reader.join(5000);
+
+        assertEquals("Old", readerSaw.get());
+        assertEquals("New", cache.findById("C1").orElseThrow().getName());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Customer customer(String id, String name) {
+        return new Customer(id, name, null, null, null);
+    }
+
+    /**
+     * In-memory stand-in for the database that counts lookups
+     */
+    private static class CountingRepository implements ICustomerRepository {
+        private final Map<String, Customer> customers = new ConcurrentHashMap<>();
+        private final AtomicInteger lookups = new AtomicInteger();
+        private volatile Runnable afterLookup = () -> {};
+
+        @Override
+        public Optional<Customer> findById(String customerId) {
+            lookups.incrementAndGet();
+            Customer customer = customers.get(customerId);
+            Optional<Customer> result = Optional.ofNullable(customer == null ? null
+                : new Customer(customer.getCustomerId(), customer.getName(), null, null, null));
+            afterLookup.run();
+            return result;
+        }
+
+        @Override
+        public void save(Customer customer) {
+            customers.put(customer.getCustomerId(), customer);
+        }
+
+        @Override
+        public void update(Customer customer) {
+            customers.put(customer.getCustomerId(), customer);
+        }
+
+        @Override
+        public void delete(String customerId) {
+            customers.remove(customerId);
+        }
+
+        @Override
+        public List<Customer> findAll() {
+            return new ArrayList<>(customers.values());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.syos.server.infrastructure.repositories;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogChangeLogTest {
+
+    @Test
+    void listsCodesChangedAfterAVersion() {
+        CatalogChangeLog log = new CatalogChangeLog();
+        log.record("A");
+        long seen = log.getVersion();
+        log.record("B");
+        log.record("C");
+
+        assertEquals(List.of("B", "C"), log.changedSince(seen));
+        assertEquals(List.of(), log.changedSince(log.getVersion()));
+    }
+
+    @Test
+    void keepsOnlyTheLatestChangeOfEachCode() {
+        CatalogChangeLog log = new CatalogChangeLog();
+        long start = log.getVersion();
+        log.record("A");
+        log.record("B");
+        log.record("A");
+
+        assertEquals(List.of("B", "A"), log.changedSince(start));
+        assertEquals(2, log.size());
+    }
+
+    @Test
+    void versionNotHandedOutIsRejected() {
+        CatalogChangeLog log = new CatalogChangeLog();
+        log.record("A");
+
+        assertNull(log.changedSince(0));
+        assertNull(log.changedSince(-1));
+        assertNull(log.changedSince(log.getVersion() + 1));
+    }
+
+    @Test
+    void versionFromAnEarlierRunIsRejected() {
+        CatalogChangeLog earlierRun = new CatalogChangeLog();
+        for (int i = 0; i < 1000; i++) {
+            earlierRun.record("ITEM-" + i);
+        }
+        CatalogChangeLog restarted = new CatalogChangeLog();
+        restarted.record("A");
+
+        // Whatever the clock did, each start has its own epoch
+        assertNull(restarted.changedSince(earlierRun.getVersion()));
+        assertNull(restarted.changedSince(earlierRun.getVersion() - 500));
+        assertNull(earlierRun.changedSince(restarted.getVersion()));
+    }
+
+    @Test
+    void versionsArePositiveAndIncreasing() {
+        CatalogChangeLog log = new CatalogChangeLog();
+        long before = log.getVersion();
+        log.record("A");
+
+        assertTrue(before > 0);
+        assertTrue(log.getVersion() > before);
+        assertEquals(List.of("A"), log.changedSince(before));
+    }
+}
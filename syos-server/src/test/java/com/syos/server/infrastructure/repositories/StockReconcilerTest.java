@@ -0,0 +1,101 @@
+package com.syos.server.infrastructure.repositories;
+
+import com.syos.server.infrastructure.database.DatabaseConnection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockReconcilerTest {
+
+    private final ItemRepositoryImpl repository = new ItemRepositoryImpl();
+
+    @BeforeEach
+    void createTables() throws SQLException {
+        // Only the background runs are held back; construction and close() still reconcile
+        System.setProperty("syos.stock.reconcileIntervalMs", "3600000");
+        execute("CREATE TABLE items (item_code VARCHAR(20) PRIMARY KEY, name VARCHAR(100) NOT NULL, " +
+                "description VARCHAR(255), price DECIMAL(10, 2) NOT NULL, category_code VARCHAR(20), " +
+                "current_stock INT NOT NULL DEFAULT 0, reorder_level INT NOT NULL DEFAULT 10)");
+        execute("CREATE TABLE stock_movements (movement_id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "item_code VARCHAR(20) NOT NULL, delta INT NOT NULL, reference VARCHAR(30), " +
+                "created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)");
+        execute("INSERT INTO items (item_code, name, price, current_stock) VALUES " +
+                "('A', 'Apple', 1.00, 10), ('B', 'Bread', 2.00, 20), ('C', 'Cheese', 3.00, 30)");
+    }
+
+    @AfterEach
+    void dropTables() throws SQLException {
+        System.clearProperty("syos.stock.reconcileIntervalMs");
+        execute("DROP TABLE items");
+        execute("DROP TABLE stock_movements");
+    }
+
+    @Test
+    void startupFoldsLoggedMovementsIntoStock() throws SQLException {
+        repository.recordStockMovements("BILL-1", Map.of("A", -3, "B", -1));
+        repository.recordStockMovements("BILL-2", Map.of("A", -2));
+
+        StockReconciler reconciler = new StockReconciler(repository);
+        try {
+            assertEquals(5, stock("A"));
+            assertEquals(19, stock("B"));
+            assertEquals(30, stock("C"));
+            assertEquals(0, count("SELECT COUNT(*) FROM stock_movements"));
+            assertEquals(3L, metric(reconciler, "movementsFolded"));
+        } finally {
+            reconciler.close();
+        }
+    }
+
+    @Test
+    void closeFoldsWhatWasLoggedSince() throws SQLException {
+        StockReconciler reconciler = new StockReconciler(repository);
+        repository.recordStockMovements("BILL-1", Map.of("C", -4));
+        assertEquals(30, stock("C"));
+
+        reconciler.close();
+        assertEquals(26, stock("C"));
+        assertEquals(0, count("SELECT COUNT(*) FROM stock_movements"));
+    }
+
+    @Test
+    void foldingIsNotRepeated() throws SQLException {
+        repository.recordStockMovements("BILL-1", Map.of("A", -1));
+        assertEquals(1, repository.reconcileStockMovements());
+        assertEquals(0, repository.reconcileStockMovements());
+        assertEquals(9, stock("A"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object metric(StockReconciler reconciler, String name) {
+        return ((Map<String, Object>) reconciler.getMetricsSnapshot()).get(name);
+    }
+
+    private static int stock(String itemCode) throws SQLException {
+        return count("SELECT current_stock FROM items WHERE item_code = '" + itemCode + "'");
+    }
+
+    private static int count(String sql) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private static void execute(String sql) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+}